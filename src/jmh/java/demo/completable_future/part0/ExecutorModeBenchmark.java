@@ -0,0 +1,116 @@
+package demo.completable_future.part0;
+
+import demo.completable_future.common.ExecutorMode;
+import org.HdrHistogram.Histogram;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.BenchmarkParams;
+import org.openjdk.jmh.infra.IterationParams;
+import org.openjdk.jmh.runner.IterationType;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+
+// The price * exchange rate * tax pipeline of SynchronousVsAsynchronousExecution with blocking calls
+// wrapped in supplyAsync, run as a batch of concurrent pipelines on each executor mode.
+// Each invocation reports the batch time; the latencies of the pipelines of all the measurement iterations
+// are accumulated in a histogram, whose percentiles are logged at the end of the trial.
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ExecutorModeBenchmark {
+
+    @Param({"COMMON", "FIXED", "VIRTUAL"})
+    private ExecutorMode mode;
+
+    @Param({"10000"})
+    private int pipelines;
+
+    @Param({"200"})
+    private int threads;
+
+    @Param({"10"})
+    private int latencyMillis;
+
+    private static final Logger logger = LoggerFactory.getLogger(ExecutorModeBenchmark.class);
+
+    private Executor executor;
+    private long[] latencies;
+    private final Histogram histogram = new Histogram(3); // in nanoseconds
+    private boolean measuring;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        executor = mode.newExecutor(threads);
+        latencies = new long[pipelines];
+    }
+
+    @Setup(Level.Iteration)
+    public void setUpIteration(IterationParams params) {
+        measuring = params.getType() == IterationType.MEASUREMENT;
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown(BenchmarkParams params) {
+        ExecutorMode.shutdown(executor);
+        logger.info("{} {}: pipelines={} latency (ms): p50={} p99={} max={}", params.getBenchmark(), mode,
+                histogram.getTotalCount(), toMillis(histogram.getValueAtPercentile(50)),
+                toMillis(histogram.getValueAtPercentile(99)), toMillis(histogram.getMaxValue()));
+    }
+
+    @Benchmark
+    public void pipelines() {
+        CompletableFuture<?>[] futures = new CompletableFuture<?>[pipelines];
+        for (int i = 0; i < pipelines; i++) {
+            int index = i;
+            long start = System.nanoTime();
+            futures[i] = pipeline().thenAccept(amount -> latencies[index] = System.nanoTime() - start);
+        }
+        CompletableFuture.allOf(futures).join();
+
+        if (measuring) {
+            for (long latency : latencies) {
+                histogram.recordValue(latency);
+            }
+        }
+    }
+
+    private CompletableFuture<Float> pipeline() {
+        CompletableFuture<Integer> priceInEur = CompletableFuture.supplyAsync(() -> block(2), executor);
+        CompletableFuture<Integer> exchangeRateEurToUsd = CompletableFuture.supplyAsync(() -> block(4), executor);
+
+        return priceInEur
+                .thenCombine(exchangeRateEurToUsd, (price, exchangeRate) -> price * exchangeRate)
+                .thenCompose(amount -> CompletableFuture.supplyAsync(() -> amount * (1 + block(50) / 100f), executor));
+    }
+
+    private int block(int value) {
+        try {
+            TimeUnit.MILLISECONDS.sleep(latencyMillis);
+        } catch (InterruptedException e) {
+            throw new RuntimeException(e);
+        }
+        return value;
+    }
+
+    private static double toMillis(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+}
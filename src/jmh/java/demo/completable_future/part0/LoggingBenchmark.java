@@ -0,0 +1,86 @@
+package demo.completable_future.part0;
+
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.joran.JoranConfigurator;
+import ch.qos.logback.core.joran.spi.JoranException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+// Throughput of a pipeline of cheap stages that log on the completion path as Demo.sleepAndGet does,
+// with the synchronous and the asynchronous logback configurations
+// and with string concatenation and parameterized messages.
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class LoggingBenchmark {
+
+    private static final Logger logger = LoggerFactory.getLogger(LoggingBenchmark.class);
+
+    @Param({"sync", "async"})
+    private String logging;
+
+    @Setup(Level.Trial)
+    public void setUp() throws JoranException {
+        LoggerContext context = (LoggerContext) LoggerFactory.getILoggerFactory();
+        context.reset();
+        JoranConfigurator configurator = new JoranConfigurator();
+        configurator.setContext(context);
+        configurator.doConfigure(getClass().getResource("/logback-bench-" + logging + ".xml"));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        ((LoggerContext) LoggerFactory.getILoggerFactory()).stop();
+    }
+
+    @Benchmark
+    public String concatenation() {
+        CompletableFuture<String> source = new CompletableFuture<>();
+        CompletableFuture<String> future = source
+                .thenApply(message -> {
+                    logger.info(message + " started");
+                    return message.toUpperCase();
+                })
+                .thenApply(message -> {
+                    logger.info(message + " finished");
+                    return message;
+                });
+        source.complete("value");
+        return future.join();
+    }
+
+    @Benchmark
+    public String parameterized() {
+        CompletableFuture<String> source = new CompletableFuture<>();
+        CompletableFuture<String> future = source
+                .thenApply(message -> {
+                    logger.info("{} started", message);
+                    return message.toUpperCase();
+                })
+                .thenApply(message -> {
+                    logger.info("{} finished", message);
+                    return message;
+                });
+        source.complete("value");
+        return future.join();
+    }
+}
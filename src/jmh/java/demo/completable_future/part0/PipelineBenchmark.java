@@ -0,0 +1,60 @@
+package demo.completable_future.part0;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PipelineBenchmark {
+
+    // area = π * r^2, as in MethodsToPipelineComputations
+    @Benchmark
+    public Double pipeline() {
+        CompletableFuture<Double> pi = new CompletableFuture<>();
+        CompletableFuture<Integer> radius = new CompletableFuture<>();
+
+        CompletableFuture<Double> area = radius
+                .thenApply(r -> r * r)
+                .thenCombine(pi, (multiplier1, multiplier2) -> multiplier1 * multiplier2);
+
+        pi.complete(Math.PI);
+        radius.complete(1);
+        return area.join();
+    }
+
+    @Benchmark
+    public Double pipelineAsync() {
+        CompletableFuture<Double> pi = CompletableFuture.supplyAsync(() -> Math.PI);
+        CompletableFuture<Integer> radius = CompletableFuture.supplyAsync(() -> 1);
+
+        return radius
+                .thenApply(r -> r * r)
+                .thenCombine(pi, (multiplier1, multiplier2) -> multiplier1 * multiplier2)
+                .join();
+    }
+
+    // as in MethodsToHandleExceptions
+    @Benchmark
+    public Integer exceptionPropagation() {
+        CompletableFuture<Integer> source = new CompletableFuture<>();
+
+        CompletableFuture<Integer> future = source
+                .thenApply(i -> 1 / i)
+                .thenApply(i -> 1 / i)
+                .handle((value, t) -> t == null ? value + 1 : -1);
+
+        source.complete(0);
+        return future.join();
+    }
+}
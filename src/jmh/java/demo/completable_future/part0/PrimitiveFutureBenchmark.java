@@ -0,0 +1,87 @@
+package demo.completable_future.part0;
+
+import demo.completable_future.common.DoubleFuture;
+import demo.completable_future.common.IntFuture;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+// Boxed CompletableFuture<Integer>/<Double> stages versus IntFuture/DoubleFuture stages:
+// area = π * r^2 as in MethodsToPipelineComputations, and a scoring chain of double stages
+// (the radius is not a small Integer, so its boxes are not cached).
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PrimitiveFutureBenchmark {
+
+    @Param({"1000"})
+    private int radius;
+
+    @Benchmark
+    public double boxedPipeline() {
+        CompletableFuture<Double> pi = new CompletableFuture<>();
+        CompletableFuture<Integer> r = new CompletableFuture<>();
+
+        CompletableFuture<Double> area = r
+                .thenApply(value -> value * value)
+                .thenCombine(pi, (multiplier1, multiplier2) -> multiplier1 * multiplier2);
+
+        pi.complete(Math.PI);
+        r.complete(radius);
+        return area.join();
+    }
+
+    @Benchmark
+    public double primitivePipeline() {
+        DoubleFuture pi = new DoubleFuture();
+        IntFuture r = new IntFuture();
+
+        DoubleFuture area = r
+                .thenApply(value -> value * value)
+                .thenApplyToDouble(value -> value)
+                .thenCombine(pi, (multiplier1, multiplier2) -> multiplier1 * multiplier2);
+
+        pi.complete(Math.PI);
+        r.complete(radius);
+        return area.join();
+    }
+
+    @Benchmark
+    public double boxedScoring() {
+        CompletableFuture<Double> source = new CompletableFuture<>();
+
+        CompletableFuture<Double> score = source;
+        for (int i = 0; i < 10; i++) {
+            score = score.thenApply(value -> value * 0.9 + 1);
+        }
+
+        source.complete((double) radius);
+        return score.join();
+    }
+
+    @Benchmark
+    public double primitiveScoring() {
+        DoubleFuture source = new DoubleFuture();
+
+        DoubleFuture score = source;
+        for (int i = 0; i < 10; i++) {
+            score = score.thenApply(value -> value * 0.9 + 1);
+        }
+
+        source.complete(radius);
+        return score.join();
+    }
+}
@@ -0,0 +1,61 @@
+package demo.completable_future.part0;
+
+import demo.completable_future.common.Pipeline;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+// A chain of synchronous thenApply stages followed by thenAccept and thenRun,
+// built as separate CompletableFuture stages and as one fused stage (run with -prof gc for B/op).
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class StageFusionBenchmark {
+
+    @Param({"10", "20"})
+    private int stages;
+
+    private int sink;
+
+    @Benchmark
+    public Void completableFuture() {
+        CompletableFuture<Integer> source = new CompletableFuture<>();
+        CompletableFuture<Integer> future = source;
+        for (int i = 0; i < stages; i++) {
+            future = future.thenApply(value -> value + 1);
+        }
+        CompletableFuture<Void> result = future
+                .thenAccept(value -> sink = value)
+                .thenRun(() -> sink++);
+        source.complete(0);
+        return result.join();
+    }
+
+    @Benchmark
+    public Void pipeline() {
+        CompletableFuture<Integer> source = new CompletableFuture<>();
+        Pipeline<Integer> pipeline = Pipeline.from(source);
+        for (int i = 0; i < stages; i++) {
+            pipeline = pipeline.thenApply(value -> value + 1);
+        }
+        CompletableFuture<Void> result = pipeline
+                .thenAccept(value -> sink = value)
+                .thenRun(() -> sink++)
+                .toCompletableFuture();
+        source.complete(0);
+        return result.join();
+    }
+}
@@ -0,0 +1,88 @@
+package demo.completable_future.part1;
+
+import demo.completable_future.common.CallbackExecutor;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+// The dispatch overhead of tiny *Async callbacks on the common pool, a fixed ThreadPoolExecutor,
+// a cached thread pool (as in testAsynchronousWithFuture) and the CallbackExecutor:
+// a chain of dependent thenApplyAsync callbacks, and a fan-out of independent callbacks joined by allOf.
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CallbackExecutorBenchmark {
+
+    @Param({"commonPool", "fixed", "cached", "callback"})
+    private String executorType;
+
+    private Executor executor;
+
+    @Setup
+    public void setup() {
+        int parallelism = Runtime.getRuntime().availableProcessors();
+        switch (executorType) {
+            case "commonPool":
+                executor = ForkJoinPool.commonPool();
+                break;
+            case "fixed":
+                executor = Executors.newFixedThreadPool(parallelism);
+                break;
+            case "cached":
+                executor = Executors.newCachedThreadPool();
+                break;
+            case "callback":
+                executor = new CallbackExecutor(parallelism);
+                break;
+            default:
+                throw new IllegalArgumentException(executorType);
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        if (executor instanceof ExecutorService) {
+            ((ExecutorService) executor).shutdown();
+        } else if (executor instanceof CallbackExecutor) {
+            ((CallbackExecutor) executor).close();
+        }
+    }
+
+    @Benchmark
+    public Integer chain() {
+        CompletableFuture<Integer> future = CompletableFuture.supplyAsync(() -> 0, executor);
+        for (int i = 0; i < 10; i++) {
+            future = future.thenApplyAsync(value -> value + 1, executor);
+        }
+        return future.join();
+    }
+
+    @Benchmark
+    public Void fanOut() {
+        CompletableFuture<?>[] futures = new CompletableFuture<?>[10];
+        for (int i = 0; i < futures.length; i++) {
+            int value = i;
+            futures[i] = CompletableFuture.supplyAsync(() -> value, executor).thenAcceptAsync(v -> {}, executor);
+        }
+        return CompletableFuture.allOf(futures).join();
+    }
+}
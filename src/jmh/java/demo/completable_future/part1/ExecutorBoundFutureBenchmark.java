@@ -0,0 +1,72 @@
+package demo.completable_future.part1;
+
+import demo.completable_future.common.ExecutorBoundFuture;
+import demo.completable_future.common.ExecutorMode;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+
+// A chain of *Async stages started on a dedicated pool:
+// without an explicit executor every stage hops to the common pool,
+// with ExecutorBoundFuture (or an explicit executor on every stage) the chain stays on the dedicated pool.
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ExecutorBoundFutureBenchmark {
+
+    private Executor executor;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        executor = ExecutorMode.FIXED.newExecutor(4);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        ExecutorMode.shutdown(executor);
+    }
+
+    @Benchmark
+    public Integer crossPool() {
+        return chain(CompletableFuture.supplyAsync(() -> 0, executor)).join();
+    }
+
+    @Benchmark
+    public Integer samePool() {
+        return chain(ExecutorBoundFuture.supplyAsync(() -> 0, executor)).join();
+    }
+
+    @Benchmark
+    public Integer samePoolWithExplicitExecutor() {
+        return CompletableFuture.supplyAsync(() -> 0, executor)
+                .thenApplyAsync(i -> i + 1, executor)
+                .thenApplyAsync(i -> i + 1, executor)
+                .thenApplyAsync(i -> i + 1, executor)
+                .thenApplyAsync(i -> i + 1, executor)
+                .join();
+    }
+
+    private static CompletableFuture<Integer> chain(CompletableFuture<Integer> future) {
+        return future
+                .thenApplyAsync(i -> i + 1)
+                .thenApplyAsync(i -> i + 1)
+                .thenApplyAsync(i -> i + 1)
+                .thenApplyAsync(i -> i + 1);
+    }
+}
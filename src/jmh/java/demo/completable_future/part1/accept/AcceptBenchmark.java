@@ -0,0 +1,57 @@
+package demo.completable_future.part1.accept;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AcceptBenchmark {
+
+    @Benchmark
+    public Void thenAccept(Blackhole blackhole) {
+        CompletableFuture<String> future1 = new CompletableFuture<>();
+        CompletableFuture<Void> future = future1.thenAccept(blackhole::consume);
+        future1.complete("single");
+        return future.join();
+    }
+
+    @Benchmark
+    public Void thenAcceptAsync(Blackhole blackhole) {
+        CompletableFuture<String> future1 = new CompletableFuture<>();
+        CompletableFuture<Void> future = future1.thenAcceptAsync(blackhole::consume);
+        future1.complete("single");
+        return future.join();
+    }
+
+    @Benchmark
+    public Void acceptEither(Blackhole blackhole) {
+        CompletableFuture<String> future1 = new CompletableFuture<>();
+        CompletableFuture<String> future2 = new CompletableFuture<>();
+        CompletableFuture<Void> future = future1.acceptEither(future2, blackhole::consume);
+        future1.complete("parallel1");
+        future2.complete("parallel2");
+        return future.join();
+    }
+
+    @Benchmark
+    public Void thenAcceptBoth(Blackhole blackhole) {
+        CompletableFuture<String> future1 = new CompletableFuture<>();
+        CompletableFuture<String> future2 = new CompletableFuture<>();
+        CompletableFuture<Void> future = future1.thenAcceptBoth(future2, (s1, s2) -> blackhole.consume(s1 + s2));
+        future1.complete("parallel1");
+        future2.complete("parallel2");
+        return future.join();
+    }
+}
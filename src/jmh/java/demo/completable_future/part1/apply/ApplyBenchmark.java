@@ -0,0 +1,72 @@
+package demo.completable_future.part1.apply;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ApplyBenchmark {
+
+    @Benchmark
+    public Integer thenApply() {
+        CompletableFuture<Integer> future1 = new CompletableFuture<>();
+        CompletableFuture<Integer> future = future1.thenApply(i -> i + 3);
+        future1.complete(2);
+        return future.join();
+    }
+
+    @Benchmark
+    public Integer thenApplyAsync() {
+        CompletableFuture<Integer> future1 = new CompletableFuture<>();
+        CompletableFuture<Integer> future = future1.thenApplyAsync(i -> i + 3);
+        future1.complete(2);
+        return future.join();
+    }
+
+    @Benchmark
+    public Integer thenCompose() {
+        CompletableFuture<Integer> future1 = new CompletableFuture<>();
+        CompletableFuture<Integer> future = future1.thenCompose(i -> CompletableFuture.completedFuture(i + 3));
+        future1.complete(2);
+        return future.join();
+    }
+
+    @Benchmark
+    public Integer thenComposeAsync() {
+        CompletableFuture<Integer> future1 = new CompletableFuture<>();
+        CompletableFuture<Integer> future = future1.thenComposeAsync(i -> CompletableFuture.completedFuture(i + 3));
+        future1.complete(2);
+        return future.join();
+    }
+
+    @Benchmark
+    public Integer applyToEither() {
+        CompletableFuture<Integer> future1 = new CompletableFuture<>();
+        CompletableFuture<Integer> future2 = new CompletableFuture<>();
+        CompletableFuture<Integer> future = future1.applyToEither(future2, i -> i + 3);
+        future1.complete(1);
+        future2.complete(2);
+        return future.join();
+    }
+
+    @Benchmark
+    public Integer thenCombine() {
+        CompletableFuture<Integer> future1 = new CompletableFuture<>();
+        CompletableFuture<Integer> future2 = new CompletableFuture<>();
+        CompletableFuture<Integer> future = future1.thenCombine(future2, Integer::sum);
+        future1.complete(1);
+        future2.complete(2);
+        return future.join();
+    }
+}
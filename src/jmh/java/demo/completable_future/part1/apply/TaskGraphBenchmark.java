@@ -0,0 +1,104 @@
+package demo.completable_future.part1.apply;
+
+import demo.completable_future.common.TaskGraph;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+// End-to-end latency of a random DAG of simulated I/O calls (10-100 us each) on 4 threads:
+// stages wired by hand with allOf/thenRunAsync, which run in the order they become ready,
+// vs the TaskGraph that runs the ready node on the critical path first.
+// Each node depends on up to 3 random nodes among the 50 added before it.
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TaskGraphBenchmark {
+
+    private static final int THREADS = 4;
+
+    @Param({"10", "100", "1000", "10000"})
+    private int nodes;
+
+    private int[][] dependencies;
+    private long[] costs; // in microseconds
+    private ExecutorService executor;
+
+    @Setup
+    public void setup() {
+        Random random = new Random(42);
+        dependencies = new int[nodes][];
+        costs = new long[nodes];
+        for (int i = 0; i < nodes; i++) {
+            int count = i == 0 ? 0 : random.nextInt(Math.min(i, 3) + 1);
+            dependencies[i] = random.ints(Math.max(0, i - 50), Math.max(1, i)).distinct().limit(count).toArray();
+            costs[i] = 10 + random.nextInt(91);
+        }
+        executor = Executors.newFixedThreadPool(THREADS);
+    }
+
+    @TearDown
+    public void tearDown() {
+        executor.shutdown();
+    }
+
+    @Benchmark
+    public Void completableFuture() {
+        CompletableFuture<?>[] futures = new CompletableFuture<?>[nodes];
+        for (int i = 0; i < nodes; i++) {
+            long cost = costs[i];
+            if (dependencies[i].length == 0) {
+                futures[i] = CompletableFuture.runAsync(() -> call(cost), executor);
+            } else {
+                CompletableFuture<?>[] inputs = new CompletableFuture<?>[dependencies[i].length];
+                for (int j = 0; j < inputs.length; j++) {
+                    inputs[j] = futures[dependencies[i][j]];
+                }
+                futures[i] = CompletableFuture.allOf(inputs).thenRunAsync(() -> call(cost), executor);
+            }
+        }
+        return CompletableFuture.allOf(futures).join();
+    }
+
+    @Benchmark
+    public Void taskGraph() {
+        TaskGraph graph = new TaskGraph();
+        List<TaskGraph.Node<Object>> added = new ArrayList<>(nodes);
+        for (int i = 0; i < nodes; i++) {
+            long cost = costs[i];
+            List<TaskGraph.Node<Object>> inputs = new ArrayList<>(dependencies[i].length);
+            for (int dependency : dependencies[i]) {
+                inputs.add(added.get(dependency));
+            }
+            added.add(graph.add("node" + i, cost, inputs, values -> {
+                call(cost);
+                return null;
+            }));
+        }
+        return graph.execute(executor, THREADS).join();
+    }
+
+    private static void call(long micros) {
+        LockSupport.parkNanos(TimeUnit.MICROSECONDS.toNanos(micros));
+    }
+}
@@ -0,0 +1,56 @@
+package demo.completable_future.part1.run;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RunBenchmark {
+
+    @Benchmark
+    public Void thenRun() {
+        CompletableFuture<String> future1 = new CompletableFuture<>();
+        CompletableFuture<Void> future = future1.thenRun(() -> {});
+        future1.complete("single");
+        return future.join();
+    }
+
+    @Benchmark
+    public Void thenRunAsync() {
+        CompletableFuture<String> future1 = new CompletableFuture<>();
+        CompletableFuture<Void> future = future1.thenRunAsync(() -> {});
+        future1.complete("single");
+        return future.join();
+    }
+
+    @Benchmark
+    public Void runAfterEither() {
+        CompletableFuture<String> future1 = new CompletableFuture<>();
+        CompletableFuture<String> future2 = new CompletableFuture<>();
+        CompletableFuture<Void> future = future1.runAfterEither(future2, () -> {});
+        future1.complete("parallel1");
+        future2.complete("parallel2");
+        return future.join();
+    }
+
+    @Benchmark
+    public Void runAfterBoth() {
+        CompletableFuture<String> future1 = new CompletableFuture<>();
+        CompletableFuture<String> future2 = new CompletableFuture<>();
+        CompletableFuture<Void> future = future1.runAfterBoth(future2, () -> {});
+        future1.complete("parallel1");
+        future2.complete("parallel2");
+        return future.join();
+    }
+}
@@ -0,0 +1,62 @@
+package demo.completable_future.part2;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ExceptionHandlingBenchmark {
+
+    private static final RuntimeException EXCEPTION = new RuntimeException("exception");
+
+    @Benchmark
+    public String exceptionallySuccess() {
+        CompletableFuture<String> future1 = new CompletableFuture<>();
+        CompletableFuture<String> future = future1.exceptionally(t -> "failure: " + t.getMessage());
+        future1.complete("value");
+        return future.join();
+    }
+
+    @Benchmark
+    public String exceptionallyError() {
+        CompletableFuture<String> future1 = new CompletableFuture<>();
+        CompletableFuture<String> future = future1.exceptionally(t -> "failure");
+        future1.completeExceptionally(EXCEPTION);
+        return future.join();
+    }
+
+    @Benchmark
+    public String exceptionallyComposeError() {
+        CompletableFuture<String> future1 = new CompletableFuture<>();
+        CompletableFuture<String> future = future1.exceptionallyCompose(t -> CompletableFuture.completedFuture("failure"));
+        future1.completeExceptionally(EXCEPTION);
+        return future.join();
+    }
+
+    @Benchmark
+    public String handleError() {
+        CompletableFuture<String> future1 = new CompletableFuture<>();
+        CompletableFuture<String> future = future1.handle((value, t) -> t == null ? value : "failure");
+        future1.completeExceptionally(EXCEPTION);
+        return future.join();
+    }
+
+    @Benchmark
+    public String whenCompleteSuccess() {
+        CompletableFuture<String> future1 = new CompletableFuture<>();
+        CompletableFuture<String> future = future1.whenComplete((value, t) -> {});
+        future1.complete("value");
+        return future.join();
+    }
+}
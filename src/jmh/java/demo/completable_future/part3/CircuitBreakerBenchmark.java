@@ -0,0 +1,49 @@
+package demo.completable_future.part3;
+
+import demo.completable_future.common.Bulkhead;
+import demo.completable_future.common.CircuitBreaker;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+// The hot path of a closed circuit breaker and of a bulkhead around an already completed call, from 32 threads.
+// Compare the score per thread with a run with -t 1: a shared lock or counter on the hot path would make it drop.
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(32)
+@State(Scope.Benchmark)
+public class CircuitBreakerBenchmark {
+
+    private static final CompletableFuture<String> VALUE = CompletableFuture.completedFuture("value");
+
+    private final CircuitBreaker breaker = new CircuitBreaker(0.5, 0.5, 1, 30, TimeUnit.SECONDS);
+    private final Bulkhead bulkhead = new Bulkhead(1024);
+
+    @Benchmark
+    public String baseline() {
+        return VALUE.whenComplete((value, t) -> {}).join();
+    }
+
+    @Benchmark
+    public String circuitBreaker() {
+        return breaker.call(() -> VALUE).join();
+    }
+
+    @Benchmark
+    public String bulkhead() {
+        return bulkhead.call(() -> VALUE).join();
+    }
+}
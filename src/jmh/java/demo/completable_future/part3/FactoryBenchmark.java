@@ -0,0 +1,52 @@
+package demo.completable_future.part3;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FactoryBenchmark {
+
+    private static final RuntimeException EXCEPTION = new RuntimeException("exception");
+
+    @Benchmark
+    public CompletableFuture<String> constructor() {
+        return new CompletableFuture<>();
+    }
+
+    @Benchmark
+    public CompletableFuture<String> completedFuture() {
+        return CompletableFuture.completedFuture("value");
+    }
+
+    @Benchmark
+    public CompletableFuture<String> failedFuture() {
+        return CompletableFuture.failedFuture(EXCEPTION);
+    }
+
+    @Benchmark
+    public CompletableFuture<String> newIncompleteFuture() {
+        return CompletableFuture.<String>completedFuture("value").newIncompleteFuture();
+    }
+
+    @Benchmark
+    public String supplyAsync() {
+        return CompletableFuture.supplyAsync(() -> "value").join();
+    }
+
+    @Benchmark
+    public Void runAsync() {
+        return CompletableFuture.runAsync(() -> {}).join();
+    }
+}
@@ -0,0 +1,57 @@
+package demo.completable_future.part3;
+
+import demo.completable_future.common.ExecutorMode;
+import demo.completable_future.common.InlineIfDoneFuture;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+
+// A cache hit: thenApplyAsync on a completed future hops to the executor and the caller waits for the result,
+// while InlineIfDoneFuture runs the callback on the calling thread.
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class InlineIfDoneBenchmark {
+
+    private Executor executor;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        executor = ExecutorMode.FIXED.newExecutor(4);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        ExecutorMode.shutdown(executor);
+    }
+
+    @Benchmark
+    public String completedFuture() {
+        return CompletableFuture.completedFuture("value")
+                .thenApplyAsync(String::toUpperCase, executor)
+                .join();
+    }
+
+    @Benchmark
+    public String inlineIfDone() {
+        return InlineIfDoneFuture.completedFuture("value", executor, 16)
+                .thenApplyAsync(String::toUpperCase)
+                .join();
+    }
+}
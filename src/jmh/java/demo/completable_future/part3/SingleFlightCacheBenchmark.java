@@ -0,0 +1,119 @@
+package demo.completable_future.part3;
+
+import demo.completable_future.common.SingleFlightCache;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+// Latency of a skewed stream of price requests to a backend that takes 100 us per call,
+// with every request calling the backend vs the requests coalesced by a single-flight cache with a short TTL.
+// The cache hits and misses and the backend calls of each iteration are reported as secondary results.
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(8)
+@State(Scope.Benchmark)
+public class SingleFlightCacheBenchmark {
+
+    @Param({"100", "10000"})
+    private int keys;
+
+    private final AtomicLong backendCalls = new AtomicLong();
+    private final AtomicBoolean reported = new AtomicBoolean();
+    private ExecutorService executor;
+    private SingleFlightCache<Integer, Integer> cache;
+    private long hits;
+    private long misses;
+    private long calls;
+
+    @Setup
+    public void setup() {
+        executor = Executors.newFixedThreadPool(8);
+        cache = new SingleFlightCache<>(this::getPriceInEur, executor, keys / 10, 10, TimeUnit.MILLISECONDS);
+    }
+
+    @Setup(Level.Iteration)
+    public void startIteration() {
+        hits = cache.hits();
+        misses = cache.misses();
+        calls = backendCalls.get();
+        reported.set(false);
+    }
+
+    @TearDown
+    public void tearDown() {
+        executor.shutdown();
+    }
+
+    @Benchmark
+    public Integer withoutCache(Counters counters) {
+        int key = nextKey();
+        return CompletableFuture.supplyAsync(() -> getPriceInEur(key), executor).join();
+    }
+
+    @Benchmark
+    public Integer withCache(Counters counters) {
+        return cache.get(nextKey()).join();
+    }
+
+    // the counters of the iteration are reported by one of the threads (the events are summed over the threads)
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Counters {
+
+        public long hits;
+        public long misses;
+        public long backendCalls;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            hits = 0;
+            misses = 0;
+            backendCalls = 0;
+        }
+
+        @TearDown(Level.Iteration)
+        public void collect(SingleFlightCacheBenchmark benchmark) {
+            if (benchmark.reported.compareAndSet(false, true)) {
+                hits = benchmark.cache.hits() - benchmark.hits;
+                misses = benchmark.cache.misses() - benchmark.misses;
+                backendCalls = benchmark.backendCalls.get() - benchmark.calls;
+            }
+        }
+    }
+
+    // about 80% of the requests are for the first 10% of the keys
+    private int nextKey() {
+        double random = ThreadLocalRandom.current().nextDouble();
+        return (int) (keys * Math.pow(random, 10));
+    }
+
+    private int getPriceInEur(int key) {
+        backendCalls.incrementAndGet();
+        LockSupport.parkNanos(100_000);
+        return key;
+    }
+}
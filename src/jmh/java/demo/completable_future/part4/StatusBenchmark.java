@@ -0,0 +1,46 @@
+package demo.completable_future.part4;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class StatusBenchmark {
+
+    private final CompletableFuture<String> completed = CompletableFuture.completedFuture("value");
+    private final CompletableFuture<String> failed = CompletableFuture.failedFuture(new RuntimeException("exception"));
+    private final CompletableFuture<String> cancelled = new CompletableFuture<>();
+
+    {
+        cancelled.cancel(false);
+    }
+
+    @Benchmark
+    public boolean isDone() {
+        return completed.isDone();
+    }
+
+    @Benchmark
+    public boolean isCompletedExceptionally() {
+        return failed.isCompletedExceptionally();
+    }
+
+    @Benchmark
+    public boolean isCancelled() {
+        return cancelled.isCancelled();
+    }
+}
@@ -0,0 +1,81 @@
+package demo.completable_future.part5;
+
+import demo.completable_future.common.BatchCompleter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+// Completes the futures of one response with a dependent stage each:
+// one completeAsync submission per future vs one hand-off for the batch.
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BatchCompletionBenchmark {
+
+    @Param({"10", "100", "500"})
+    private int size;
+
+    private ExecutorService executor;
+    private BatchCompleter<Integer, String> completer;
+    private Map<Integer, String> response;
+    private final Map<Integer, CompletableFuture<String>> pending = new ConcurrentHashMap<>();
+
+    @Setup
+    public void setup() {
+        executor = Executors.newFixedThreadPool(4);
+        completer = new BatchCompleter<>(executor);
+        response = new HashMap<>();
+        for (int id = 0; id < size; id++) {
+            response.put(id, "value" + id);
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        executor.shutdown();
+    }
+
+    @Benchmark
+    public Void completeAsync() {
+        CompletableFuture<?>[] futures = new CompletableFuture<?>[size];
+        for (int id = 0; id < size; id++) {
+            CompletableFuture<String> future = new CompletableFuture<>();
+            pending.put(id, future);
+            futures[id] = future.thenApply(String::length);
+        }
+        for (Map.Entry<Integer, String> entry : response.entrySet()) {
+            pending.remove(entry.getKey()).completeAsync(entry::getValue, executor);
+        }
+        return CompletableFuture.allOf(futures).join();
+    }
+
+    @Benchmark
+    public Void batchCompleter() {
+        CompletableFuture<?>[] futures = new CompletableFuture<?>[size];
+        for (int id = 0; id < size; id++) {
+            futures[id] = completer.register(id).thenApply(String::length);
+        }
+        completer.completeAsync(response);
+        return CompletableFuture.allOf(futures).join();
+    }
+}
@@ -0,0 +1,57 @@
+package demo.completable_future.part5;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CompletionBenchmark {
+
+    private static final RuntimeException EXCEPTION = new RuntimeException("exception");
+
+    @Benchmark
+    public boolean complete() {
+        return new CompletableFuture<String>().complete("value");
+    }
+
+    @Benchmark
+    public String completeAsync() {
+        return new CompletableFuture<String>().completeAsync(() -> "value").join();
+    }
+
+    @Benchmark
+    public boolean completeExceptionally() {
+        return new CompletableFuture<String>().completeExceptionally(EXCEPTION);
+    }
+
+    @Benchmark
+    public boolean cancel() {
+        return new CompletableFuture<String>().cancel(false);
+    }
+
+    // arms the timeout and cancels it by completing on time
+    @Benchmark
+    public String orTimeout() {
+        CompletableFuture<String> future = new CompletableFuture<String>().orTimeout(1, TimeUnit.SECONDS);
+        future.complete("value");
+        return future.join();
+    }
+
+    @Benchmark
+    public String completeOnTimeout() {
+        CompletableFuture<String> future = new CompletableFuture<String>().completeOnTimeout("default", 1, TimeUnit.SECONDS);
+        future.complete("value");
+        return future.join();
+    }
+}
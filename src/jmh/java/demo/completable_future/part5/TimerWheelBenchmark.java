@@ -0,0 +1,73 @@
+package demo.completable_future.part5;
+
+import demo.completable_future.common.TimerWheel;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+// Arms a timeout on each of 1M pending futures (all of them alive at once, as with RPCs with deadlines)
+// and then completes 99% of them on time, which cancels their timeouts.
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 10)
+@Fork(value = 1, jvmArgs = {"-Xmx4g"})
+@State(Scope.Benchmark)
+public class TimerWheelBenchmark {
+
+    @Param({"1000000"})
+    private int futures;
+
+    private TimerWheel wheel;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        wheel = TimerWheel.start(10, TimeUnit.MILLISECONDS, 512);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        wheel.close();
+    }
+
+    @Benchmark
+    public CompletableFuture<?>[] orTimeout() {
+        CompletableFuture<?>[] result = new CompletableFuture<?>[futures];
+        for (int i = 0; i < futures; i++) {
+            result[i] = new CompletableFuture<Integer>().orTimeout(1, TimeUnit.SECONDS);
+        }
+        return complete(result);
+    }
+
+    @Benchmark
+    public CompletableFuture<?>[] orTimeoutWithTimerWheel() {
+        CompletableFuture<?>[] result = new CompletableFuture<?>[futures];
+        for (int i = 0; i < futures; i++) {
+            result[i] = TimerWheel.orTimeout(new CompletableFuture<Integer>(), 1, TimeUnit.SECONDS, wheel);
+        }
+        return complete(result);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static CompletableFuture<?>[] complete(CompletableFuture<?>[] futures) {
+        for (int i = 0; i < futures.length; i++) {
+            if (i % 100 != 0) {
+                ((CompletableFuture<Integer>) futures[i]).complete(i);
+            }
+        }
+        return futures;
+    }
+}
@@ -0,0 +1,59 @@
+package demo.completable_future.part6;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class RetrievalBenchmark {
+
+    private final CompletableFuture<String> completed = CompletableFuture.completedFuture("value");
+    private final CompletableFuture<String> incomplete = new CompletableFuture<>();
+
+    @Benchmark
+    public String get() throws InterruptedException, ExecutionException {
+        return completed.get();
+    }
+
+    @Benchmark
+    public String getWithTimeout() throws InterruptedException, ExecutionException, TimeoutException {
+        return completed.get(1, TimeUnit.SECONDS);
+    }
+
+    @Benchmark
+    public String join() {
+        return completed.join();
+    }
+
+    @Benchmark
+    public String getNow() {
+        return completed.getNow("default");
+    }
+
+    @Benchmark
+    public String getNowValueIfAbsent() {
+        return incomplete.getNow("default");
+    }
+
+    // the blocking path: the value is produced by another thread
+    @Benchmark
+    public String joinAsync() {
+        return CompletableFuture.supplyAsync(() -> "value").join();
+    }
+}
@@ -0,0 +1,58 @@
+package demo.completable_future.part7;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class AllOfAnyOfBenchmark {
+
+    @Param({"2", "3", "16"})
+    private int size;
+
+    @Benchmark
+    public Void allOf() {
+        CompletableFuture<?>[] futures = newFutures();
+        CompletableFuture<Void> future = CompletableFuture.allOf(futures);
+        complete(futures);
+        return future.join();
+    }
+
+    @Benchmark
+    public Object anyOf() {
+        CompletableFuture<?>[] futures = newFutures();
+        CompletableFuture<Object> future = CompletableFuture.anyOf(futures);
+        complete(futures);
+        return future.join();
+    }
+
+    private CompletableFuture<?>[] newFutures() {
+        CompletableFuture<?>[] futures = new CompletableFuture<?>[size];
+        for (int i = 0; i < size; i++) {
+            futures[i] = new CompletableFuture<Integer>();
+        }
+        return futures;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static void complete(CompletableFuture<?>[] futures) {
+        for (int i = 0; i < futures.length; i++) {
+            ((CompletableFuture<Integer>) futures[i]).complete(i);
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package demo.completable_future.part7;
+
+import demo.completable_future.common.BoundedAllOf;
+import demo.completable_future.common.ExecutorMode;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+// Plain allOf over an array of started futures vs BoundedAllOf over suppliers.
+// The batch time is the score, the memory is reported by the GC profiler,
+// and the latency of a task from its start to its completion is reported as counters
+// (JMH sums the counters over the iterations, the per-iteration values are in the rawData of the JSON results).
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 10)
+@Fork(value = 1, jvmArgs = {"-Xmx4g"})
+@State(Scope.Benchmark)
+public class BoundedAllOfBenchmark {
+
+    @Param({"10000", "100000", "1000000"})
+    private int tasks;
+
+    @Param({"1024"})
+    private int maxInFlight;
+
+    private Executor executor;
+    private long[] latencies;
+
+    // filled in after each invocation
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    @State(Scope.Thread)
+    public static class Latency {
+        public double p99Micros;
+        public double maxMicros;
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        executor = ExecutorMode.FIXED.newExecutor(Runtime.getRuntime().availableProcessors());
+        latencies = new long[tasks];
+    }
+
+    @TearDown(Level.Invocation)
+    public void recordLatency(Latency latency) {
+        Arrays.sort(latencies);
+        latency.p99Micros = latencies[(int) (latencies.length * 0.99)] / 1_000.0;
+        latency.maxMicros = latencies[latencies.length - 1] / 1_000.0;
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        ExecutorMode.shutdown(executor);
+    }
+
+    @Benchmark
+    public List<Integer> allOf() {
+        CompletableFuture<?>[] futures = IntStream.range(0, tasks)
+                .mapToObj(this::task)
+                .toArray(CompletableFuture<?>[]::new);
+
+        CompletableFuture.allOf(futures).join();
+
+        return Stream.of(futures)
+                .map(CompletableFuture::join)
+                .map(Integer.class::cast)
+                .collect(Collectors.toList());
+    }
+
+    @Benchmark
+    public List<Integer> boundedAllOf() {
+        return BoundedAllOf.<Integer>allOf(IntStream.range(0, tasks).mapToObj(i -> () -> task(i)), maxInFlight)
+                .join();
+    }
+
+    private CompletableFuture<Integer> task(int i) {
+        long start = System.nanoTime();
+        return CompletableFuture.supplyAsync(() -> {
+            latencies[i] = System.nanoTime() - start;
+            return i;
+        }, executor);
+    }
+}
@@ -0,0 +1,63 @@
+package demo.completable_future.part8;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class UtilityBenchmark {
+
+    private final CompletableFuture<String> completed = CompletableFuture.completedFuture("value");
+    private final Executor delayedExecutor = CompletableFuture.delayedExecutor(0, TimeUnit.NANOSECONDS);
+
+    @Benchmark
+    public CompletableFuture<String> copy() {
+        return completed.copy();
+    }
+
+    @Benchmark
+    public String copyIncomplete() {
+        CompletableFuture<String> future1 = new CompletableFuture<>();
+        CompletableFuture<String> future = future1.copy();
+        future1.complete("value");
+        return future.join();
+    }
+
+    @Benchmark
+    public Executor newDelayedExecutor() {
+        return CompletableFuture.delayedExecutor(1, TimeUnit.SECONDS);
+    }
+
+    // the hop through the single Delayer thread and then the default executor
+    @Benchmark
+    public String delayedExecutor() {
+        return new CompletableFuture<String>().completeAsync(() -> "value", delayedExecutor).join();
+    }
+
+    @Benchmark
+    public int getNumberOfDependents() {
+        return completed.getNumberOfDependents();
+    }
+
+    @Benchmark
+    public String obtrudeValue() {
+        CompletableFuture<String> future = CompletableFuture.completedFuture("value1");
+        future.obtrudeValue("value2");
+        return future.join();
+    }
+}
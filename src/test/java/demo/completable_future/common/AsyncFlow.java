@@ -0,0 +1,316 @@
+package demo.completable_future.common;
+
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Flow;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+// Adapters between Flow publishers and CompletableFuture pipelines, for inputs too many to collect for allOf.
+// mapAsync applies an async function (as thenCompose does) to the items of a publisher: at most maxConcurrency items
+// are requested from the upstream and not yet delivered downstream (running or completed and waiting for demand),
+// so the memory is bounded whatever the number of items. The results are delivered in the order they complete.
+// The first failure (of the upstream or of a stage) cancels the upstream and is signalled downstream at once.
+// The publishers are cold: each subscriber subscribes to the upstream (or iterates the suppliers) on its own.
+public class AsyncFlow {
+
+    private AsyncFlow() {
+    }
+
+    public static <T, R> Flow.Publisher<R> mapAsync(Flow.Publisher<T> upstream,
+                                                    Function<? super T, ? extends CompletionStage<? extends R>> fn,
+                                                    int maxConcurrency) {
+        Objects.requireNonNull(upstream);
+        Objects.requireNonNull(fn);
+        if (maxConcurrency <= 0) {
+            throw new IllegalArgumentException("maxConcurrency must be positive: " + maxConcurrency);
+        }
+        return subscriber -> upstream.subscribe(new MapAsync<>(Objects.requireNonNull(subscriber), fn, maxConcurrency));
+    }
+
+    // the results of supplyAsync of the suppliers, the next supplier is started when a result is delivered
+    public static <T> Flow.Publisher<T> supplyAsync(Iterable<? extends Supplier<? extends T>> suppliers,
+                                                    Executor executor, int maxConcurrency) {
+        Objects.requireNonNull(executor);
+        return mapAsync(fromIterable(suppliers), supplier -> CompletableFuture.supplyAsync(supplier, executor), maxConcurrency);
+    }
+
+    // emits the items of the iterable on demand, the iterable may be unbounded (e.g. generated items)
+    public static <T> Flow.Publisher<T> fromIterable(Iterable<? extends T> items) {
+        Objects.requireNonNull(items);
+        return subscriber -> {
+            Iterator<? extends T> iterator;
+            try {
+                iterator = items.iterator();
+            } catch (Throwable t) {
+                subscriber.onSubscribe(new Flow.Subscription() {
+                    @Override
+                    public void request(long n) {
+                    }
+
+                    @Override
+                    public void cancel() {
+                    }
+                });
+                subscriber.onError(t);
+                return;
+            }
+            IteratorSubscription<T> subscription = new IteratorSubscription<>(subscriber, iterator);
+            subscriber.onSubscribe(subscription);
+        };
+    }
+
+    // the signals to the subscriber are serialized by the draining flag: a thread that finds another one draining
+    // leaves the work to it, and the draining thread checks the state again (under the lock) before it stops
+    private static class MapAsync<T, R> implements Flow.Subscriber<T>, Flow.Subscription {
+
+        private final Flow.Subscriber<? super R> downstream;
+        private final Function<? super T, ? extends CompletionStage<? extends R>> fn;
+        private final int maxConcurrency;
+        private final Queue<R> ready = new ArrayDeque<>(); // guarded by this
+        private volatile Flow.Subscription upstream;
+        private long demand; // guarded by this
+        private int running; // guarded by this
+        private boolean upstreamDone; // guarded by this
+        private Throwable failure; // guarded by this
+        private boolean terminated; // guarded by this
+        private boolean draining; // guarded by this
+
+        MapAsync(Flow.Subscriber<? super R> downstream, Function<? super T, ? extends CompletionStage<? extends R>> fn,
+                 int maxConcurrency) {
+            this.downstream = downstream;
+            this.fn = fn;
+            this.maxConcurrency = maxConcurrency;
+        }
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            synchronized (this) {
+                if (upstream != null) {
+                    subscription.cancel();
+                    return;
+                }
+                upstream = subscription;
+            }
+            downstream.onSubscribe(this);
+            if (!isTerminated()) { // the downstream may have cancelled in onSubscribe
+                subscription.request(maxConcurrency);
+            }
+        }
+
+        @Override
+        public void onNext(T item) {
+            synchronized (this) {
+                if (terminated) {
+                    return;
+                }
+                running++;
+            }
+            CompletionStage<? extends R> stage;
+            try {
+                stage = fn.apply(item);
+            } catch (Throwable t) {
+                fail(t, true);
+                return;
+            }
+            stage.whenComplete((result, t) -> {
+                if (t != null) {
+                    fail(t instanceof CompletionException && t.getCause() != null ? t.getCause() : t, true);
+                } else if (result == null) {
+                    fail(new NullPointerException("the stage completed with null"), true);
+                } else {
+                    synchronized (this) {
+                        running--;
+                        if (!terminated) {
+                            ready.add(result);
+                        }
+                    }
+                    drain();
+                }
+            });
+        }
+
+        @Override
+        public void onError(Throwable t) {
+            fail(t, false);
+        }
+
+        @Override
+        public void onComplete() {
+            synchronized (this) {
+                upstreamDone = true;
+            }
+            drain();
+        }
+
+        @Override
+        public void request(long n) {
+            if (n <= 0) {
+                fail(new IllegalArgumentException("non-positive request: " + n), true);
+                return;
+            }
+            synchronized (this) {
+                demand = demand + n < 0 ? Long.MAX_VALUE : demand + n;
+            }
+            drain();
+        }
+
+        @Override
+        public void cancel() {
+            synchronized (this) {
+                terminated = true;
+                ready.clear();
+            }
+            upstream.cancel();
+        }
+
+        private synchronized boolean isTerminated() {
+            return terminated;
+        }
+
+        private void fail(Throwable t, boolean cancelUpstream) {
+            synchronized (this) {
+                if (terminated || failure != null) {
+                    return;
+                }
+                failure = t;
+            }
+            if (cancelUpstream) {
+                upstream.cancel();
+            }
+            drain();
+        }
+
+        private void drain() {
+            synchronized (this) {
+                if (draining) {
+                    return;
+                }
+                draining = true;
+            }
+            for (;;) {
+                R item = null;
+                Throwable error = null;
+                synchronized (this) {
+                    if (terminated) {
+                        draining = false;
+                        return;
+                    }
+                    if (failure != null) {
+                        terminated = true;
+                        error = failure;
+                        ready.clear();
+                    } else if (demand > 0 && !ready.isEmpty()) {
+                        item = ready.poll();
+                        demand--;
+                    } else if (upstreamDone && running == 0 && ready.isEmpty()) {
+                        terminated = true;
+                    } else {
+                        draining = false;
+                        return;
+                    }
+                }
+                if (error != null) {
+                    downstream.onError(error);
+                } else if (item == null) {
+                    downstream.onComplete();
+                } else {
+                    downstream.onNext(item);
+                    if (!isTerminated()) { // the downstream may have cancelled in onNext
+                        upstream.request(1); // the delivered item frees a slot
+                    }
+                }
+            }
+        }
+    }
+
+    private static class IteratorSubscription<T> implements Flow.Subscription {
+
+        private final Flow.Subscriber<? super T> subscriber;
+        private final Iterator<? extends T> iterator;
+        private long demand; // guarded by this
+        private Throwable failure; // guarded by this
+        private boolean terminated; // guarded by this
+        private boolean draining; // guarded by this
+
+        IteratorSubscription(Flow.Subscriber<? super T> subscriber, Iterator<? extends T> iterator) {
+            this.subscriber = subscriber;
+            this.iterator = iterator;
+        }
+
+        @Override
+        public void request(long n) {
+            synchronized (this) {
+                if (n <= 0) {
+                    if (failure == null) {
+                        failure = new IllegalArgumentException("non-positive request: " + n);
+                    }
+                } else {
+                    demand = demand + n < 0 ? Long.MAX_VALUE : demand + n;
+                }
+            }
+            drain();
+        }
+
+        @Override
+        public synchronized void cancel() {
+            terminated = true;
+        }
+
+        // as in MapAsync, only the draining thread iterates and signals the subscriber
+        private void drain() {
+            synchronized (this) {
+                if (draining) {
+                    return;
+                }
+                draining = true;
+            }
+            for (;;) {
+                Throwable error = null;
+                synchronized (this) {
+                    if (terminated) {
+                        draining = false;
+                        return;
+                    }
+                    if (failure != null) {
+                        terminated = true;
+                        error = failure;
+                    } else if (demand == 0) {
+                        draining = false;
+                        return;
+                    } else {
+                        demand--;
+                    }
+                }
+                if (error != null) {
+                    subscriber.onError(error);
+                    return;
+                }
+                T item;
+                try {
+                    if (!iterator.hasNext()) {
+                        terminate();
+                        subscriber.onComplete();
+                        return;
+                    }
+                    item = Objects.requireNonNull(iterator.next());
+                } catch (Throwable t) {
+                    terminate();
+                    subscriber.onError(t);
+                    return;
+                }
+                subscriber.onNext(item);
+            }
+        }
+
+        private synchronized void terminate() {
+            terminated = true;
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package demo.completable_future.common;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+
+// Completes the pending futures of many requests, correlated by id, from one response (e.g. a multiget reply)
+// with one executor hand-off for the whole batch instead of one completeAsync submission per future.
+// The dependent stages of the completed futures are run by the batch task, one after another.
+// Ids that are not pending (e.g. late replies to timed out requests) are ignored,
+// pending ids that are not in the response stay pending until a later response.
+public class BatchCompleter<K, V> {
+
+    private final Map<K, CompletableFuture<V>> pending = new ConcurrentHashMap<>();
+    private final Executor executor;
+
+    public BatchCompleter(Executor executor) {
+        this.executor = executor;
+    }
+
+    public CompletableFuture<V> register(K id) {
+        CompletableFuture<V> future = new CompletableFuture<>();
+        if (pending.putIfAbsent(id, future) != null) {
+            throw new IllegalStateException("id is already pending: " + id);
+        }
+        // a future that is completed or cancelled by the caller is no longer pending
+        future.whenComplete((value, t) -> pending.remove(id, future));
+        return future;
+    }
+
+    public int pending() {
+        return pending.size();
+    }
+
+    // the returned future is completed when all the futures of the batch are completed
+    public CompletableFuture<Void> completeAsync(Map<K, ? extends V> response) {
+        return CompletableFuture.runAsync(() -> {
+            for (Map.Entry<K, ? extends V> entry : response.entrySet()) {
+                CompletableFuture<V> future = pending.remove(entry.getKey());
+                if (future != null) {
+                    future.complete(entry.getValue());
+                }
+            }
+        }, executor);
+    }
+
+    public CompletableFuture<Void> completeExceptionallyAsync(Collection<K> ids, Throwable t) {
+        return CompletableFuture.runAsync(() -> {
+            for (K id : ids) {
+                CompletableFuture<V> future = pending.remove(id);
+                if (future != null) {
+                    future.completeExceptionally(t);
+                }
+            }
+        }, executor);
+    }
+}
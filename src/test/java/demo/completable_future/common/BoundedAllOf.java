@@ -0,0 +1,129 @@
+package demo.completable_future.common;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+// A variant of CompletableFuture.allOf that starts at most maxInFlight tasks at once
+// and starts the next task only when an earlier one completes.
+// The results are stored in a pre-sized list in the order of the tasks.
+public class BoundedAllOf<T> {
+
+    private final Spliterator<? extends Supplier<? extends CompletionStage<? extends T>>> tasks;
+    private final Object[] results;
+    private final AtomicInteger remaining;
+    private final CompletableFuture<List<T>> result = new CompletableFuture<>();
+
+    private Supplier<? extends CompletionStage<? extends T>> pulled; // guarded by this
+    private int next; // guarded by this
+
+    private BoundedAllOf(Spliterator<? extends Supplier<? extends CompletionStage<? extends T>>> tasks, int size) {
+        this.tasks = tasks;
+        this.results = new Object[size];
+        this.remaining = new AtomicInteger(size);
+    }
+
+    public static <T> CompletableFuture<List<T>> allOf(Stream<? extends Supplier<? extends CompletionStage<? extends T>>> tasks, int maxInFlight) {
+        return allOf(tasks.spliterator(), maxInFlight);
+    }
+
+    public static <T> CompletableFuture<List<T>> allOf(Iterable<? extends Supplier<? extends CompletionStage<? extends T>>> tasks, int maxInFlight) {
+        return allOf(tasks.spliterator(), maxInFlight);
+    }
+
+    private static <T> CompletableFuture<List<T>> allOf(Spliterator<? extends Supplier<? extends CompletionStage<? extends T>>> tasks, int maxInFlight) {
+        if (maxInFlight < 1) {
+            throw new IllegalArgumentException("maxInFlight must be positive: " + maxInFlight);
+        }
+
+        long size = tasks.getExactSizeIfKnown();
+        if (size < 0) { // only the suppliers are buffered, not the futures
+            List<Supplier<? extends CompletionStage<? extends T>>> buffer = new ArrayList<>();
+            tasks.forEachRemaining(buffer::add);
+            tasks = buffer.spliterator();
+            size = buffer.size();
+        }
+        if (size > Integer.MAX_VALUE - 8) {
+            throw new IllegalArgumentException("too many tasks: " + size);
+        }
+
+        BoundedAllOf<T> allOf = new BoundedAllOf<>(tasks, (int) size);
+        if (size == 0) {
+            allOf.result.complete(List.of());
+        }
+        for (long lane = Math.min(maxInFlight, size); lane > 0; lane--) {
+            allOf.startNext();
+        }
+        return allOf.result;
+    }
+
+    // runs tasks on this lane until one of them is still running, then continues when it completes
+    private void startNext() {
+        while (!result.isDone()) {
+            Supplier<? extends CompletionStage<? extends T>> task;
+            int index;
+            synchronized (this) {
+                if (!tasks.tryAdvance(supplier -> pulled = supplier)) {
+                    return;
+                }
+                task = pulled;
+                pulled = null;
+                index = next++;
+            }
+
+            CompletableFuture<? extends T> future;
+            try {
+                future = task.get().toCompletableFuture();
+            } catch (Throwable e) {
+                result.completeExceptionally(e);
+                return;
+            }
+
+            if (!future.isDone()) {
+                future.whenComplete((value, t) -> {
+                    if (t == null ? succeed(index, value) : fail(t)) {
+                        startNext();
+                    }
+                });
+                return;
+            }
+
+            T value;
+            try {
+                value = future.join();
+            } catch (CompletionException e) {
+                fail(e.getCause());
+                return;
+            } catch (CancellationException e) {
+                fail(e);
+                return;
+            }
+            if (!succeed(index, value)) {
+                return;
+            }
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private boolean succeed(int index, T value) {
+        results[index] = value;
+        if (remaining.decrementAndGet() == 0) { // the decrement publishes the results to the completing thread
+            result.complete((List<T>) Arrays.asList(results));
+            return false;
+        }
+        return true;
+    }
+
+    private boolean fail(Throwable t) {
+        result.completeExceptionally(t);
+        return false;
+    }
+}
@@ -0,0 +1,42 @@
+package demo.completable_future.common;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.function.Supplier;
+
+// Limits the number of concurrent calls to a dependency. A call over the limit is not queued
+// but rejected at once with an already failed future, so a slow dependency can't fill the executor with stuck calls.
+// To keep the rejections out of a circuit breaker's failure rate, put the bulkhead outside the breaker:
+// bulkhead.call(() -> breaker.supplyAsync(supplier, executor)).
+public class Bulkhead {
+
+    private final Semaphore permits;
+
+    public Bulkhead(int maxConcurrentCalls) {
+        this.permits = new Semaphore(maxConcurrentCalls);
+    }
+
+    public int available() {
+        return permits.availablePermits();
+    }
+
+    public <T> CompletableFuture<T> supplyAsync(Supplier<T> supplier, Executor executor) {
+        return call(() -> CompletableFuture.supplyAsync(supplier, executor));
+    }
+
+    public <T> CompletableFuture<T> call(Supplier<? extends CompletionStage<T>> request) {
+        if (!permits.tryAcquire()) {
+            return CompletableFuture.failedFuture(new RejectedExecutionException("bulkhead is full"));
+        }
+        CompletableFuture<T> future;
+        try {
+            future = request.get().toCompletableFuture();
+        } catch (Throwable t) {
+            future = CompletableFuture.failedFuture(t);
+        }
+        return future.whenComplete((value, t) -> permits.release());
+    }
+}
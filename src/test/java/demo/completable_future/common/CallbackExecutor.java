@@ -0,0 +1,172 @@
+package demo.completable_future.common;
+
+import java.util.Deque;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.LockSupport;
+
+// An executor for short completion callbacks of *Async stages.
+// Each worker has its own deque: a task submitted by a worker (e.g. the dependent stage of the callback it is running)
+// is pushed to the head of its deque and popped from there next (LIFO), while its data is still in the cache.
+// A task submitted by any other thread goes to a shared queue and is run in submission order (FIFO).
+// An idle worker steals from the tails of the other workers' deques, and spins for a while before it parks,
+// so a burst of callbacks doesn't pay for unparking a thread per callback.
+public class CallbackExecutor implements Executor, AutoCloseable {
+
+    private static final int SPINS = 256;
+
+    private final Worker[] workers;
+    private final Queue<Runnable> submissions = new ConcurrentLinkedQueue<>();
+    private final Queue<Worker> parked = new ConcurrentLinkedQueue<>();
+    private volatile boolean closed;
+
+    public CallbackExecutor(int parallelism) {
+        if (parallelism <= 0) {
+            throw new IllegalArgumentException("parallelism must be positive: " + parallelism);
+        }
+        workers = new Worker[parallelism];
+        for (int i = 0; i < parallelism; i++) {
+            workers[i] = new Worker(i);
+        }
+        for (Worker worker : workers) {
+            worker.thread.start();
+        }
+    }
+
+    @Override
+    public void execute(Runnable task) {
+        if (closed) {
+            throw new RejectedExecutionException("executor is closed");
+        }
+        Worker worker = currentWorker();
+        if (worker != null) {
+            worker.tasks.addFirst(task);
+        } else {
+            submissions.add(task);
+        }
+        signal();
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        for (Worker worker : workers) {
+            LockSupport.unpark(worker.thread);
+        }
+    }
+
+    private Worker currentWorker() {
+        Thread thread = Thread.currentThread();
+        if (thread instanceof WorkerThread && ((WorkerThread) thread).executor == this) {
+            return workers[((WorkerThread) thread).index];
+        }
+        return null;
+    }
+
+    // wakes up a parked worker, if there is one, to run or steal the new task
+    private void signal() {
+        if (parked.isEmpty()) {
+            return;
+        }
+        Worker worker = parked.poll();
+        if (worker != null) {
+            worker.parked.set(false);
+            LockSupport.unpark(worker.thread);
+        }
+    }
+
+    private class Worker {
+
+        final int index;
+        final Deque<Runnable> tasks = new ConcurrentLinkedDeque<>();
+        final AtomicBoolean parked = new AtomicBoolean();
+        final Thread thread;
+
+        Worker(int index) {
+            this.index = index;
+            this.thread = new WorkerThread(CallbackExecutor.this, index, this::run);
+        }
+
+        void run() {
+            int spins = 0;
+            while (!closed) {
+                Runnable task = next();
+                if (task != null) {
+                    spins = 0;
+                    try {
+                        task.run();
+                    } catch (Throwable t) {
+                        Thread.UncaughtExceptionHandler handler = thread.getUncaughtExceptionHandler();
+                        handler.uncaughtException(thread, t);
+                    }
+                } else if (spins < SPINS) {
+                    spins++;
+                    Thread.onSpinWait();
+                } else {
+                    park();
+                    spins = 0;
+                }
+            }
+        }
+
+        // own deque first (LIFO), then the submissions (FIFO), then steal the oldest task of another worker
+        Runnable next() {
+            Runnable task = tasks.pollFirst();
+            if (task != null) {
+                return task;
+            }
+            task = submissions.poll();
+            if (task != null) {
+                return task;
+            }
+            for (int i = 1; i < workers.length; i++) {
+                task = workers[(index + i) % workers.length].tasks.pollLast();
+                if (task != null) {
+                    return task;
+                }
+            }
+            return null;
+        }
+
+        // the worker is registered as parked before the queues are checked for the last time,
+        // so a task submitted after the check finds the worker and unparks it
+        void park() {
+            if (parked.compareAndSet(false, true)) {
+                CallbackExecutor.this.parked.add(this);
+            }
+            if (hasTasks() || closed) {
+                return;
+            }
+            LockSupport.park(this);
+        }
+
+        boolean hasTasks() {
+            if (!submissions.isEmpty()) {
+                return true;
+            }
+            for (Worker worker : workers) {
+                if (!worker.tasks.isEmpty()) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    private static class WorkerThread extends Thread {
+
+        final CallbackExecutor executor;
+        final int index;
+
+        WorkerThread(CallbackExecutor executor, int index, Runnable runnable) {
+            super(runnable, "callback-" + index);
+            this.executor = executor;
+            this.index = index;
+            setDaemon(true);
+        }
+    }
+}
@@ -0,0 +1,297 @@
+package demo.completable_future.common;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Future;
+import java.util.function.BiConsumer;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+// A CompletableFuture whose cancellation propagates upstream: cancelling a stage cancels the stages it depends on
+// (the source of thenApply, thenAccept and thenRun, both sources of thenCombine, thenAcceptBoth and runAfterBoth,
+// the source and the nested stage of thenCompose, all the sources of allOf), and cancel(true) interrupts the worker
+// running a supplyAsync task. The other stages (copy, whenComplete, handle, exceptionally, and the *Either stages,
+// whose other source may still be needed) don't propagate: cancelling a defensive copy doesn't cancel the source.
+// A source shared with other dependents is cancelled as well, so the other dependents complete with CancellationException.
+// A stage drops the links to its upstream stages when it completes, so a long chain doesn't stay reachable.
+public class CancellableFuture<T> extends CompletableFuture<T> {
+
+    private final Queue<Future<?>> upstream = new ConcurrentLinkedQueue<>();
+    private volatile boolean interruptOnCancel;
+    private Thread worker; // guarded by this
+
+    public static <T> CancellableFuture<T> supplyAsync(Supplier<T> supplier, Executor executor) {
+        CancellableFuture<T> future = new CancellableFuture<>();
+        executor.execute(() -> future.run(supplier));
+        return future;
+    }
+
+    public static CancellableFuture<Void> runAsync(Runnable runnable, Executor executor) {
+        return supplyAsync(() -> {
+            runnable.run();
+            return null;
+        }, executor);
+    }
+
+    // makes a stage created elsewhere cancellable through the returned future
+    public static <T> CancellableFuture<T> of(CompletionStage<T> stage) {
+        CancellableFuture<T> future = linked(new CancellableFuture<>(), stage.toCompletableFuture());
+        stage.whenComplete((value, t) -> {
+            if (t == null) {
+                future.complete(value);
+            } else {
+                future.completeExceptionally(t);
+            }
+        });
+        return future;
+    }
+
+    public static CancellableFuture<Void> allOf(CompletableFuture<?>... futures) {
+        CancellableFuture<Void> future = linked(new CancellableFuture<>(), futures);
+        CompletableFuture.allOf(futures).whenComplete((value, t) -> {
+            if (t == null) {
+                future.complete(null);
+            } else {
+                future.completeExceptionally(t);
+            }
+        });
+        return future;
+    }
+
+    @Override
+    public <U> CompletableFuture<U> newIncompleteFuture() {
+        return new CancellableFuture<>();
+    }
+
+    @Override
+    public <U> CompletableFuture<U> thenApply(Function<? super T, ? extends U> fn) {
+        return linked(super.thenApply(fn), this);
+    }
+
+    @Override
+    public <U> CompletableFuture<U> thenApplyAsync(Function<? super T, ? extends U> fn) {
+        return linked(super.thenApplyAsync(fn), this);
+    }
+
+    @Override
+    public <U> CompletableFuture<U> thenApplyAsync(Function<? super T, ? extends U> fn, Executor executor) {
+        return linked(super.thenApplyAsync(fn, executor), this);
+    }
+
+    @Override
+    public CompletableFuture<Void> thenAccept(Consumer<? super T> action) {
+        return linked(super.thenAccept(action), this);
+    }
+
+    @Override
+    public CompletableFuture<Void> thenAcceptAsync(Consumer<? super T> action) {
+        return linked(super.thenAcceptAsync(action), this);
+    }
+
+    @Override
+    public CompletableFuture<Void> thenAcceptAsync(Consumer<? super T> action, Executor executor) {
+        return linked(super.thenAcceptAsync(action, executor), this);
+    }
+
+    @Override
+    public CompletableFuture<Void> thenRun(Runnable action) {
+        return linked(super.thenRun(action), this);
+    }
+
+    @Override
+    public CompletableFuture<Void> thenRunAsync(Runnable action) {
+        return linked(super.thenRunAsync(action), this);
+    }
+
+    @Override
+    public CompletableFuture<Void> thenRunAsync(Runnable action, Executor executor) {
+        return linked(super.thenRunAsync(action, executor), this);
+    }
+
+    @Override
+    public <U, V> CompletableFuture<V> thenCombine(CompletionStage<? extends U> other, BiFunction<? super T, ? super U, ? extends V> fn) {
+        return linked(super.thenCombine(other, fn), this, other.toCompletableFuture());
+    }
+
+    @Override
+    public <U, V> CompletableFuture<V> thenCombineAsync(CompletionStage<? extends U> other, BiFunction<? super T, ? super U, ? extends V> fn) {
+        return linked(super.thenCombineAsync(other, fn), this, other.toCompletableFuture());
+    }
+
+    @Override
+    public <U, V> CompletableFuture<V> thenCombineAsync(CompletionStage<? extends U> other, BiFunction<? super T, ? super U, ? extends V> fn,
+                                                        Executor executor) {
+        return linked(super.thenCombineAsync(other, fn, executor), this, other.toCompletableFuture());
+    }
+
+    @Override
+    public <U> CompletableFuture<Void> thenAcceptBoth(CompletionStage<? extends U> other, BiConsumer<? super T, ? super U> action) {
+        return linked(super.thenAcceptBoth(other, action), this, other.toCompletableFuture());
+    }
+
+    @Override
+    public <U> CompletableFuture<Void> thenAcceptBothAsync(CompletionStage<? extends U> other, BiConsumer<? super T, ? super U> action) {
+        return linked(super.thenAcceptBothAsync(other, action), this, other.toCompletableFuture());
+    }
+
+    @Override
+    public <U> CompletableFuture<Void> thenAcceptBothAsync(CompletionStage<? extends U> other, BiConsumer<? super T, ? super U> action,
+                                                           Executor executor) {
+        return linked(super.thenAcceptBothAsync(other, action, executor), this, other.toCompletableFuture());
+    }
+
+    @Override
+    public CompletableFuture<Void> runAfterBoth(CompletionStage<?> other, Runnable action) {
+        return linked(super.runAfterBoth(other, action), this, other.toCompletableFuture());
+    }
+
+    @Override
+    public CompletableFuture<Void> runAfterBothAsync(CompletionStage<?> other, Runnable action) {
+        return linked(super.runAfterBothAsync(other, action), this, other.toCompletableFuture());
+    }
+
+    @Override
+    public CompletableFuture<Void> runAfterBothAsync(CompletionStage<?> other, Runnable action, Executor executor) {
+        return linked(super.runAfterBothAsync(other, action, executor), this, other.toCompletableFuture());
+    }
+
+    @Override
+    public <U> CompletableFuture<U> thenCompose(Function<? super T, ? extends CompletionStage<U>> fn) {
+        Link link = new Link();
+        return link.result(linked(super.thenCompose(link.nested(fn)), this));
+    }
+
+    @Override
+    public <U> CompletableFuture<U> thenComposeAsync(Function<? super T, ? extends CompletionStage<U>> fn) {
+        Link link = new Link();
+        return link.result(linked(super.thenComposeAsync(link.nested(fn)), this));
+    }
+
+    @Override
+    public <U> CompletableFuture<U> thenComposeAsync(Function<? super T, ? extends CompletionStage<U>> fn, Executor executor) {
+        Link link = new Link();
+        return link.result(linked(super.thenComposeAsync(link.nested(fn), executor), this));
+    }
+
+    // cancels this stage and then, breadth first, the stages upstream of it (without recursion, for long chains)
+    // (the links are read before the stage is cancelled, as the completion drops them)
+    @Override
+    public boolean cancel(boolean mayInterruptIfRunning) {
+        List<Future<?>> links = List.copyOf(upstream);
+        if (!cancelThis(mayInterruptIfRunning)) {
+            return false;
+        }
+        Deque<Future<?>> pending = new ArrayDeque<>(links);
+        Future<?> future;
+        while ((future = pending.poll()) != null) {
+            if (future instanceof CancellableFuture) {
+                CancellableFuture<?> cancellable = (CancellableFuture<?>) future;
+                List<Future<?>> upstreamLinks = List.copyOf(cancellable.upstream);
+                if (cancellable.cancelThis(mayInterruptIfRunning)) {
+                    pending.addAll(upstreamLinks);
+                }
+            } else {
+                future.cancel(mayInterruptIfRunning);
+            }
+        }
+        return true;
+    }
+
+    private boolean cancelThis(boolean mayInterruptIfRunning) {
+        interruptOnCancel = mayInterruptIfRunning;
+        if (!super.cancel(mayInterruptIfRunning)) {
+            return false;
+        }
+        if (mayInterruptIfRunning) {
+            synchronized (this) {
+                if (worker != null) {
+                    worker.interrupt();
+                }
+            }
+        }
+        return true;
+    }
+
+    private void addUpstream(Future<?> future) {
+        upstream.add(future);
+        if (isCancelled()) { // cancelled before the upstream stage was known
+            future.cancel(interruptOnCancel);
+        } else if (isDone()) { // completed before the upstream stage was known, no longer cancellable
+            upstream.clear();
+        }
+    }
+
+    // links the stage (created by newIncompleteFuture) to its upstream stages until it completes
+    private static <F extends CompletableFuture<V>, V> F linked(F stage, Future<?>... sources) {
+        CancellableFuture<V> future = (CancellableFuture<V>) stage;
+        for (Future<?> source : sources) {
+            future.addUpstream(source);
+        }
+        future.whenComplete((value, t) -> future.upstream.clear()); // whenComplete isn't linked
+        return stage;
+    }
+
+    private void run(Supplier<T> supplier) {
+        synchronized (this) {
+            if (isDone()) { // cancelled before started
+                return;
+            }
+            worker = Thread.currentThread();
+        }
+        try {
+            complete(supplier.get());
+        } catch (Throwable t) {
+            completeExceptionally(t);
+        } finally {
+            synchronized (this) {
+                worker = null;
+            }
+            if (isCancelled() && interruptOnCancel) {
+                Thread.interrupted(); // the interrupt by cancel(true) must not leak to the next task of the pooled thread
+            }
+        }
+    }
+
+    // the nested stage of thenCompose may be created before or after the result stage is returned by super.thenCompose
+    private static class Link {
+
+        private CancellableFuture<?> result; // guarded by this
+        private Future<?> nested; // guarded by this
+
+        <T, U> Function<T, CompletionStage<U>> nested(Function<? super T, ? extends CompletionStage<U>> fn) {
+            return value -> {
+                CompletionStage<U> stage = fn.apply(value);
+                CompletableFuture<U> future = stage.toCompletableFuture();
+                CancellableFuture<?> linked;
+                synchronized (this) {
+                    nested = future;
+                    linked = result;
+                }
+                if (linked != null) {
+                    linked.addUpstream(future);
+                }
+                return stage;
+            };
+        }
+
+        <U> CompletableFuture<U> result(CompletableFuture<U> future) {
+            Future<?> linked;
+            synchronized (this) {
+                result = (CancellableFuture<?>) future;
+                linked = nested;
+            }
+            if (linked != null) {
+                ((CancellableFuture<?>) future).addUpstream(linked);
+            }
+            return future;
+        }
+    }
+}
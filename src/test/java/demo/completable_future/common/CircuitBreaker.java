@@ -0,0 +1,205 @@
+package demo.completable_future.common;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+// A lock-free circuit breaker. While it is closed, the outcomes of the calls are counted in a sliding window
+// of 10 one-second buckets; when the failure rate or the slow-call rate in the window reaches its threshold,
+// the breaker opens and fails the calls at once with an already failed future instead of calling the dependency.
+// After the open duration, a few trial calls are let through (half-open): if they all succeed,
+// the breaker closes with an empty window, otherwise it opens again.
+// On the hot path of a closed breaker a call reads one volatile field and increments striped counters (LongAdder),
+// so concurrent callers don't contend on a shared lock or counter.
+public class CircuitBreaker {
+
+    public enum State {
+        CLOSED, OPEN, HALF_OPEN
+    }
+
+    private static final int WINDOW_BUCKETS = 10;
+    private static final long BUCKET_NANOS = TimeUnit.SECONDS.toNanos(1);
+    private static final int MINIMUM_CALLS = 20; // in the window, before the rates are evaluated
+    private static final int HALF_OPEN_CALLS = 5;
+
+    private final double failureRateThreshold;
+    private final double slowCallRateThreshold;
+    private final long slowCallNanos;
+    private final long openNanos;
+    private final AtomicReference<Phase> phase = new AtomicReference<>(Phase.closed());
+
+    public CircuitBreaker(double failureRateThreshold, double slowCallRateThreshold, long slowCallDuration, long openDuration,
+                          TimeUnit unit) {
+        this.failureRateThreshold = failureRateThreshold;
+        this.slowCallRateThreshold = slowCallRateThreshold;
+        this.slowCallNanos = unit.toNanos(slowCallDuration);
+        this.openNanos = unit.toNanos(openDuration);
+    }
+
+    public State state() {
+        return phase.get().state;
+    }
+
+    public <T> CompletableFuture<T> supplyAsync(Supplier<T> supplier, Executor executor) {
+        return call(() -> CompletableFuture.supplyAsync(supplier, executor));
+    }
+
+    public <T> CompletableFuture<T> call(Supplier<? extends CompletionStage<T>> request) {
+        Phase admitted = tryAcquire();
+        if (admitted == null) {
+            return CompletableFuture.failedFuture(new RejectedExecutionException("circuit breaker is open"));
+        }
+        long start = System.nanoTime();
+        CompletableFuture<T> future;
+        try {
+            future = request.get().toCompletableFuture();
+        } catch (Throwable t) {
+            future = CompletableFuture.failedFuture(t);
+        }
+        return future.whenComplete((value, t) -> onComplete(admitted, t == null, start, System.nanoTime()));
+    }
+
+    // returns the phase in which the call is admitted, or null if the call is rejected
+    private Phase tryAcquire() {
+        for (;;) {
+            Phase current = phase.get();
+            switch (current.state) {
+                case CLOSED:
+                    return current;
+                case OPEN:
+                    if (System.nanoTime() - current.openedAt < openNanos) {
+                        return null;
+                    }
+                    phase.compareAndSet(current, Phase.halfOpen());
+                    break; // re-read the phase
+                default:
+                    return current.tryAcquireTrial() ? current : null;
+            }
+        }
+    }
+
+    private void onComplete(Phase admitted, boolean success, long start, long now) {
+        boolean slow = now - start >= slowCallNanos;
+        boolean bad = !success || slow;
+        if (admitted.state == State.CLOSED) {
+            admitted.window.record(now, success, slow);
+            if (bad && admitted.window.isTripped(now, failureRateThreshold, slowCallRateThreshold)) {
+                phase.compareAndSet(admitted, Phase.open());
+            }
+        } else if (bad) {
+            phase.compareAndSet(admitted, Phase.open());
+        } else if (admitted.trialSuccesses.incrementAndGet() == HALF_OPEN_CALLS) {
+            phase.compareAndSet(admitted, Phase.closed());
+        }
+    }
+
+    // an immutable state with its own counters, replaced as a whole on each transition,
+    // so the outcome of a call admitted in a previous phase is not counted in the current one
+    private static class Phase {
+
+        final State state;
+        final Window window;
+        final long openedAt;
+        final AtomicInteger trialPermits;
+        final AtomicInteger trialSuccesses;
+
+        private Phase(State state, Window window, long openedAt, int trialPermits) {
+            this.state = state;
+            this.window = window;
+            this.openedAt = openedAt;
+            this.trialPermits = new AtomicInteger(trialPermits);
+            this.trialSuccesses = new AtomicInteger();
+        }
+
+        static Phase closed() {
+            return new Phase(State.CLOSED, new Window(), 0, 0);
+        }
+
+        static Phase open() {
+            return new Phase(State.OPEN, null, System.nanoTime(), 0);
+        }
+
+        static Phase halfOpen() {
+            return new Phase(State.HALF_OPEN, null, 0, HALF_OPEN_CALLS);
+        }
+
+        boolean tryAcquireTrial() {
+            for (;;) {
+                int permits = trialPermits.get();
+                if (permits <= 0) {
+                    return false;
+                }
+                if (trialPermits.compareAndSet(permits, permits - 1)) {
+                    return true;
+                }
+            }
+        }
+    }
+
+    // a ring of buckets, a stale bucket is replaced (not reset) by the first call in its new second
+    private static class Window {
+
+        private final AtomicReferenceArray<Bucket> buckets = new AtomicReferenceArray<>(WINDOW_BUCKETS);
+
+        void record(long now, boolean success, boolean slow) {
+            Bucket bucket = current(Math.floorDiv(now, BUCKET_NANOS));
+            bucket.calls.increment();
+            if (!success) {
+                bucket.failures.increment();
+            }
+            if (slow) {
+                bucket.slowCalls.increment();
+            }
+        }
+
+        boolean isTripped(long now, double failureRateThreshold, double slowCallRateThreshold) {
+            long epoch = Math.floorDiv(now, BUCKET_NANOS);
+            long calls = 0;
+            long failures = 0;
+            long slowCalls = 0;
+            for (int i = 0; i < WINDOW_BUCKETS; i++) {
+                Bucket bucket = buckets.get(i);
+                if (bucket != null && epoch - bucket.epoch < WINDOW_BUCKETS) {
+                    calls += bucket.calls.sum();
+                    failures += bucket.failures.sum();
+                    slowCalls += bucket.slowCalls.sum();
+                }
+            }
+            return calls >= MINIMUM_CALLS
+                    && ((double) failures / calls >= failureRateThreshold || (double) slowCalls / calls >= slowCallRateThreshold);
+        }
+
+        private Bucket current(long epoch) {
+            int index = (int) Math.floorMod(epoch, (long) WINDOW_BUCKETS);
+            for (;;) {
+                Bucket bucket = buckets.get(index);
+                if (bucket != null && bucket.epoch == epoch) {
+                    return bucket;
+                }
+                Bucket created = new Bucket(epoch);
+                if (buckets.compareAndSet(index, bucket, created)) {
+                    return created;
+                }
+            }
+        }
+    }
+
+    private static class Bucket {
+
+        final long epoch;
+        final LongAdder calls = new LongAdder();
+        final LongAdder failures = new LongAdder();
+        final LongAdder slowCalls = new LongAdder();
+
+        Bucket(long epoch) {
+            this.epoch = epoch;
+        }
+    }
+}
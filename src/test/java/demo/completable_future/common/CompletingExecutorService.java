@@ -0,0 +1,104 @@
+package demo.completable_future.common;
+
+import java.util.List;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RunnableFuture;
+import java.util.concurrent.TimeUnit;
+
+// An ExecutorService wrapper whose submitted tasks complete a CompletableFuture directly when they finish,
+// so legacy code can keep calling submit() and getting a Future, and FutureAdapter.adapt() returns
+// the CompletableFuture of the task without polling.
+public class CompletingExecutorService extends AbstractExecutorService {
+
+    private final ExecutorService executor;
+
+    public CompletingExecutorService(ExecutorService executor) {
+        this.executor = executor;
+    }
+
+    @Override
+    protected <T> RunnableFuture<T> newTaskFor(Callable<T> callable) {
+        return new CompletingTask<>(callable);
+    }
+
+    @Override
+    protected <T> RunnableFuture<T> newTaskFor(Runnable runnable, T value) {
+        return new CompletingTask<>(() -> {
+            runnable.run();
+            return value;
+        });
+    }
+
+    @Override
+    public void execute(Runnable command) {
+        executor.execute(command);
+    }
+
+    @Override
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    @Override
+    public List<Runnable> shutdownNow() {
+        return executor.shutdownNow();
+    }
+
+    @Override
+    public boolean isShutdown() {
+        return executor.isShutdown();
+    }
+
+    @Override
+    public boolean isTerminated() {
+        return executor.isTerminated();
+    }
+
+    @Override
+    public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+        return executor.awaitTermination(timeout, unit);
+    }
+
+    static class CompletingTask<T> extends FutureTask<T> {
+
+        private final CompletableFuture<T> completion = new CompletableFuture<>() {
+            @Override
+            public boolean cancel(boolean mayInterruptIfRunning) {
+                boolean cancelled = super.cancel(mayInterruptIfRunning);
+                CompletingTask.this.cancel(true); // interrupts the task if it's running
+                return cancelled;
+            }
+        };
+
+        CompletingTask(Callable<T> callable) {
+            super(callable);
+        }
+
+        CompletableFuture<T> completion() {
+            return completion;
+        }
+
+        // called once the task is in its final state, so the completion never disagrees with it
+        // (e.g. completed normally by set() that lost the race with cancel())
+        @Override
+        protected void done() {
+            if (isCancelled()) {
+                completion.cancel(false);
+                return;
+            }
+            try {
+                completion.complete(get()); // doesn't block, the task is done
+            } catch (ExecutionException e) {
+                completion.completeExceptionally(e.getCause());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                completion.completeExceptionally(e);
+            }
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package demo.completable_future.common;
+
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+// Similar to ExecutorCompletionService, but for already existing futures:
+// the futures are taken in the order they complete (successfully or exceptionally).
+public class CompletionOrder<T> implements Iterator<CompletableFuture<T>> {
+
+    private final BlockingQueue<CompletableFuture<T>> completed = new LinkedBlockingQueue<>();
+    private final int size;
+    private int taken;
+
+    public CompletionOrder(Collection<? extends CompletableFuture<T>> futures) {
+        this.size = futures.size();
+        for (CompletableFuture<T> future : futures) {
+            future.whenComplete((value, t) -> completed.add(future));
+        }
+    }
+
+    public static <T> Stream<CompletableFuture<T>> stream(Collection<? extends CompletableFuture<T>> futures) {
+        CompletionOrder<T> completionOrder = new CompletionOrder<>(futures);
+        Spliterator<CompletableFuture<T>> spliterator = Spliterators.spliterator(completionOrder, completionOrder.size,
+                Spliterator.ORDERED | Spliterator.NONNULL);
+        return StreamSupport.stream(spliterator, false);
+    }
+
+    public int remaining() {
+        return size - taken;
+    }
+
+    // waits for the next completed future
+    public CompletableFuture<T> take() throws InterruptedException {
+        checkRemaining();
+        CompletableFuture<T> future = completed.take();
+        taken++;
+        return future;
+    }
+
+    // returns the next completed future or null if none has completed yet
+    public CompletableFuture<T> poll() {
+        checkRemaining();
+        return counted(completed.poll());
+    }
+
+    public CompletableFuture<T> poll(long timeout, TimeUnit unit) throws InterruptedException {
+        checkRemaining();
+        return counted(completed.poll(timeout, unit));
+    }
+
+    @Override
+    public boolean hasNext() {
+        return taken < size;
+    }
+
+    @Override
+    public CompletableFuture<T> next() {
+        try {
+            return take();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CompletionException(e);
+        }
+    }
+
+    private void checkRemaining() {
+        if (taken == size) {
+            throw new NoSuchElementException("all " + size + " futures have been taken");
+        }
+    }
+
+    private CompletableFuture<T> counted(CompletableFuture<T> future) {
+        if (future != null) {
+            taken++;
+        }
+        return future;
+    }
+}
@@ -0,0 +1,73 @@
+package demo.completable_future.common;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+// An overall time budget of a multi-stage computation.
+// Each stage started through the deadline gets the remaining budget as its timeout,
+// and a stage that is reached after the deadline fails with TimeoutException without being scheduled or run.
+public class Deadline {
+
+    private final long deadlineNanos;
+
+    private Deadline(long deadlineNanos) {
+        this.deadlineNanos = deadlineNanos;
+    }
+
+    public static Deadline after(long timeout, TimeUnit unit) {
+        return new Deadline(System.nanoTime() + unit.toNanos(timeout));
+    }
+
+    public long remaining(TimeUnit unit) {
+        return unit.convert(deadlineNanos - System.nanoTime(), TimeUnit.NANOSECONDS);
+    }
+
+    public boolean isExpired() {
+        return deadlineNanos - System.nanoTime() <= 0;
+    }
+
+    public <T> CompletableFuture<T> supplyAsync(Supplier<T> supplier, Executor executor) {
+        if (isExpired()) {
+            return CompletableFuture.failedFuture(expired());
+        }
+        return withRemainingTimeout(CompletableFuture.supplyAsync(() -> {
+            checkNotExpired(); // the stage may have waited in the executor queue
+            return supplier.get();
+        }, executor));
+    }
+
+    public <T, U> CompletableFuture<U> thenCompose(CompletionStage<T> stage, Function<? super T, ? extends CompletionStage<U>> fn) {
+        return withRemainingTimeout(stage.toCompletableFuture().thenCompose(value -> {
+            checkNotExpired();
+            return fn.apply(value);
+        }));
+    }
+
+    public <T, U, V> CompletableFuture<V> thenCombine(CompletionStage<T> stage1, CompletionStage<U> stage2, BiFunction<? super T, ? super U, ? extends V> fn) {
+        return withRemainingTimeout(stage1.toCompletableFuture().thenCombine(stage2, (value1, value2) -> {
+            checkNotExpired();
+            return fn.apply(value1, value2);
+        }));
+    }
+
+    private <T> CompletableFuture<T> withRemainingTimeout(CompletableFuture<T> future) {
+        return future.orTimeout(Math.max(0, remaining(TimeUnit.NANOSECONDS)), TimeUnit.NANOSECONDS);
+    }
+
+    private void checkNotExpired() {
+        if (isExpired()) {
+            throw new CompletionException(expired());
+        }
+    }
+
+    private TimeoutException expired() {
+        return new TimeoutException("deadline exceeded");
+    }
+}
@@ -3,12 +3,32 @@ package demo.completable_future.common;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
 
 public class Demo {
 
     protected static final Logger logger = LoggerFactory.getLogger(Demo.class);
 
+    // -Ddemo.executor=common|fixed|virtual, -Ddemo.executor.threads=N (for the fixed pool)
+    private static final Executor executor = ExecutorMode.fromSystemProperty()
+            .newExecutor(ExecutorMode.threadsFromSystemProperty());
+
+    protected static Executor executor() {
+        return executor;
+    }
+
+    // the *Async stages of the returned futures also run on the selected executor
+    protected static <T> CompletableFuture<T> supplyAsync(Supplier<T> supplier) {
+        return ExecutorBoundFuture.supplyAsync(supplier, executor);
+    }
+
+    protected static CompletableFuture<Void> runAsync(Runnable runnable) {
+        return ExecutorBoundFuture.runAsync(runnable, executor);
+    }
+
     protected static void sleep(int seconds) {
         try {
             TimeUnit.SECONDS.sleep(seconds);
@@ -18,13 +38,26 @@ public class Demo {
     }
 
     protected static <T> T sleepAndGet(int seconds, T message) {
-        logger.info(message + " started");
+        logger.info("{} started", message);
         sleep(seconds);
-        logger.info(message + " finished");
+        logger.info("{} finished", message);
         return message;
     }
 
     protected static <T> T sleepAndGet(T message) {
         return sleepAndGet(1, message);
     }
+
+    // non-blocking: no thread is held during the delay, the future is completed by the delayed executor
+    protected static <T> CompletableFuture<T> sleepAndGetAsync(int seconds, T message) {
+        logger.info("{} started", message);
+        return new ExecutorBoundFuture<T>(executor).completeAsync(() -> {
+            logger.info("{} finished", message);
+            return message;
+        }, CompletableFuture.delayedExecutor(seconds, TimeUnit.SECONDS, executor));
+    }
+
+    protected static <T> CompletableFuture<T> sleepAndGetAsync(T message) {
+        return sleepAndGetAsync(1, message);
+    }
 }
@@ -0,0 +1,143 @@
+package demo.completable_future.common;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.Formatter;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+// Samples getNumberOfDependents() of long-lived shared futures (e.g. a cached configuration future
+// that every request chains a stage on) and keeps the recent samples of each one.
+// A future that is still pending with at least the threshold number of dependents is flagged as leaking:
+// the dependents of a future that never completes are never run or released.
+// getNumberOfDependents() traverses the stack of dependents, so a sample costs O(dependents).
+// The futures are weakly referenced, a completed or collected future is no longer monitored.
+public class DependentsMonitor implements AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(DependentsMonitor.class);
+
+    private final int threshold;
+    private final int historySize;
+    private final Map<String, Monitored> futures = new ConcurrentHashMap<>();
+    private ScheduledExecutorService scheduler; // guarded by this
+
+    public DependentsMonitor(int threshold, int historySize) {
+        if (threshold <= 0) {
+            throw new IllegalArgumentException("threshold must be positive: " + threshold);
+        }
+        if (historySize <= 0) {
+            throw new IllegalArgumentException("historySize must be positive: " + historySize);
+        }
+        this.threshold = threshold;
+        this.historySize = historySize;
+    }
+
+    public void register(String name, CompletableFuture<?> future) {
+        futures.put(name, new Monitored(future, historySize));
+    }
+
+    // samples periodically on a daemon thread
+    public synchronized DependentsMonitor start(long period, TimeUnit unit) {
+        if (scheduler != null) {
+            throw new IllegalStateException("monitor is already started");
+        }
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "dependents-monitor");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleAtFixedRate(this::sample, period, period, unit);
+        return this;
+    }
+
+    @Override
+    public synchronized void close() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+    }
+
+    public synchronized void sample() {
+        futures.forEach((name, monitored) -> {
+            CompletableFuture<?> future = monitored.future.get();
+            if (future == null || future.isDone()) {
+                futures.remove(name, monitored);
+                return;
+            }
+            int dependents = future.getNumberOfDependents();
+            monitored.add(dependents);
+
+            boolean leaking = dependents >= threshold;
+            if (leaking && !monitored.leaking) {
+                logger.warn("{} is not completed and has {} dependents", name, dependents);
+            }
+            monitored.leaking = leaking;
+        });
+    }
+
+    public synchronized List<String> leaks() {
+        List<String> names = new ArrayList<>();
+        futures.forEach((name, monitored) -> {
+            if (monitored.leaking) {
+                names.add(name);
+            }
+        });
+        names.sort(null);
+        return names;
+    }
+
+    // the numbers of dependents of the recent samples, the oldest first; empty if the future is not monitored
+    public synchronized int[] history(String name) {
+        Monitored monitored = futures.get(name);
+        return monitored == null ? new int[0] : monitored.history();
+    }
+
+    public synchronized String report() {
+        Formatter out = new Formatter();
+        new TreeMap<>(futures).forEach((name, monitored) -> {
+            int[] history = monitored.history();
+            if (history.length == 0) {
+                return;
+            }
+            int last = history[history.length - 1];
+            out.format("future %s: dependents=%d growth=%+d over %d samples%s%n",
+                    name, last, last - history[0], history.length, monitored.leaking ? " LEAK" : "");
+        });
+        return out.toString();
+    }
+
+    private static class Monitored {
+
+        final WeakReference<CompletableFuture<?>> future;
+        final int[] samples; // a ring buffer
+        long count;
+        boolean leaking;
+
+        Monitored(CompletableFuture<?> future, int historySize) {
+            this.future = new WeakReference<>(future);
+            this.samples = new int[historySize];
+        }
+
+        void add(int dependents) {
+            samples[(int) (count++ % samples.length)] = dependents;
+        }
+
+        int[] history() {
+            int size = (int) Math.min(count, samples.length);
+            int[] history = new int[size];
+            for (int i = 0; i < size; i++) {
+                history[i] = samples[(int) ((count - size + i) % samples.length)];
+            }
+            return history;
+        }
+    }
+}
@@ -0,0 +1,272 @@
+package demo.completable_future.common;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Executor;
+import java.util.function.DoubleBinaryOperator;
+import java.util.function.DoubleConsumer;
+import java.util.function.DoubleFunction;
+import java.util.function.DoubleSupplier;
+import java.util.function.DoubleToIntFunction;
+import java.util.function.DoubleToLongFunction;
+import java.util.function.DoubleUnaryOperator;
+import java.util.function.ToDoubleFunction;
+
+// A future of a double value, see IntFuture.
+public class DoubleFuture extends PrimitiveFuture {
+
+    private double value; // published by the completion
+
+    public static DoubleFuture completedFuture(double value) {
+        DoubleFuture future = new DoubleFuture();
+        future.complete(value);
+        return future;
+    }
+
+    public static DoubleFuture failedFuture(Throwable t) {
+        DoubleFuture future = new DoubleFuture();
+        future.completeExceptionally(t);
+        return future;
+    }
+
+    public static DoubleFuture supplyAsync(DoubleSupplier supplier, Executor executor) {
+        DoubleFuture future = new DoubleFuture();
+        try {
+            executor.execute(() -> {
+                try {
+                    future.complete(supplier.getAsDouble());
+                } catch (Throwable t) {
+                    future.completeExceptionally(t);
+                }
+            });
+        } catch (Throwable t) {
+            future.completeExceptionally(t);
+        }
+        return future;
+    }
+
+    // unboxes the value of a stage created elsewhere
+    public static DoubleFuture of(CompletionStage<? extends Double> stage) {
+        DoubleFuture future = new DoubleFuture();
+        stage.whenComplete((value, t) -> {
+            if (t != null) {
+                future.completeExceptionally(unwrap(t));
+            } else if (value == null) {
+                future.completeExceptionally(new NullPointerException("the stage completed with null"));
+            } else {
+                future.complete(value);
+            }
+        });
+        return future;
+    }
+
+    // the dependents are completed before this method returns, even if it's called by a dependent of another future
+    public boolean complete(double value) {
+        return complete(value, false);
+    }
+
+    // called by the dependent actions, see PrimitiveFuture
+    void completeNested(double value) {
+        complete(value, true);
+    }
+
+    private boolean complete(double value, boolean nested) {
+        if (!startCompletion()) {
+            return false;
+        }
+        this.value = value;
+        finishCompletion(nested);
+        return true;
+    }
+
+    public double join() {
+        await();
+        return value;
+    }
+
+    public double getNow(double valueIfAbsent) {
+        if (!isDone()) {
+            return valueIfAbsent;
+        }
+        return join();
+    }
+
+    public DoubleFuture thenApply(DoubleUnaryOperator fn) {
+        DoubleFuture future = new DoubleFuture();
+        whenDone(new Dependent() {
+            @Override
+            public void run() {
+                if (propagateFailure(future)) {
+                    return;
+                }
+                try {
+                    future.completeNested(fn.applyAsDouble(value));
+                } catch (Throwable t) {
+                    future.completeExceptionallyNested(t);
+                }
+            }
+        });
+        return future;
+    }
+
+    public DoubleFuture thenApplyAsync(DoubleUnaryOperator fn, Executor executor) {
+        DoubleFuture future = new DoubleFuture();
+        whenDoneAsync(executor, future, new Dependent() {
+            @Override
+            public void run() {
+                if (propagateFailure(future)) {
+                    return;
+                }
+                try {
+                    future.completeNested(fn.applyAsDouble(value));
+                } catch (Throwable t) {
+                    future.completeExceptionallyNested(t);
+                }
+            }
+        });
+        return future;
+    }
+
+    public IntFuture thenApplyToInt(DoubleToIntFunction fn) {
+        IntFuture future = new IntFuture();
+        whenDone(new Dependent() {
+            @Override
+            public void run() {
+                if (propagateFailure(future)) {
+                    return;
+                }
+                try {
+                    future.completeNested(fn.applyAsInt(value));
+                } catch (Throwable t) {
+                    future.completeExceptionallyNested(t);
+                }
+            }
+        });
+        return future;
+    }
+
+    public IntFuture thenApplyToIntAsync(DoubleToIntFunction fn, Executor executor) {
+        IntFuture future = new IntFuture();
+        whenDoneAsync(executor, future, new Dependent() {
+            @Override
+            public void run() {
+                if (propagateFailure(future)) {
+                    return;
+                }
+                try {
+                    future.completeNested(fn.applyAsInt(value));
+                } catch (Throwable t) {
+                    future.completeExceptionallyNested(t);
+                }
+            }
+        });
+        return future;
+    }
+
+    public LongFuture thenApplyToLong(DoubleToLongFunction fn) {
+        LongFuture future = new LongFuture();
+        whenDone(new Dependent() {
+            @Override
+            public void run() {
+                if (propagateFailure(future)) {
+                    return;
+                }
+                try {
+                    future.completeNested(fn.applyAsLong(value));
+                } catch (Throwable t) {
+                    future.completeExceptionallyNested(t);
+                }
+            }
+        });
+        return future;
+    }
+
+    public LongFuture thenApplyToLongAsync(DoubleToLongFunction fn, Executor executor) {
+        LongFuture future = new LongFuture();
+        whenDoneAsync(executor, future, new Dependent() {
+            @Override
+            public void run() {
+                if (propagateFailure(future)) {
+                    return;
+                }
+                try {
+                    future.completeNested(fn.applyAsLong(value));
+                } catch (Throwable t) {
+                    future.completeExceptionallyNested(t);
+                }
+            }
+        });
+        return future;
+    }
+
+    // the value is passed unboxed, only the result is an object
+    public <U> CompletableFuture<U> thenApplyToObj(DoubleFunction<? extends U> fn) {
+        CompletableFuture<U> future = new CompletableFuture<>();
+        whenDone(new Dependent() {
+            @Override
+            public void run() {
+                Throwable failure = failure();
+                if (failure != null) {
+                    future.completeExceptionally(failure);
+                    return;
+                }
+                try {
+                    future.complete(fn.apply(value));
+                } catch (Throwable t) {
+                    future.completeExceptionally(t);
+                }
+            }
+        });
+        return future;
+    }
+
+    public DoubleFuture thenCombine(DoubleFuture other, DoubleBinaryOperator fn) {
+        DoubleFuture future = new DoubleFuture();
+        whenBothDone(other, new Dependent() {
+            @Override
+            public void run() {
+                if (propagateFailure(future) || other.propagateFailure(future)) {
+                    return;
+                }
+                try {
+                    future.completeNested(fn.applyAsDouble(value, other.value));
+                } catch (Throwable t) {
+                    future.completeExceptionallyNested(t);
+                }
+            }
+        });
+        return future;
+    }
+
+    public CompletableFuture<Void> thenAccept(DoubleConsumer action) {
+        return thenApplyToObj(value -> {
+            action.accept(value);
+            return null;
+        });
+    }
+
+    public DoubleFuture exceptionally(ToDoubleFunction<Throwable> fn) {
+        DoubleFuture future = new DoubleFuture();
+        whenDone(new Dependent() {
+            @Override
+            public void run() {
+                Throwable failure = failure();
+                if (failure == null) {
+                    future.completeNested(value);
+                    return;
+                }
+                try {
+                    future.completeNested(fn.applyAsDouble(failure));
+                } catch (Throwable t) {
+                    future.completeExceptionallyNested(t);
+                }
+            }
+        });
+        return future;
+    }
+
+    // boxes the value once, at the boundary with the CompletionStage API
+    public CompletableFuture<Double> toCompletableFuture() {
+        return thenApplyToObj(Double::valueOf);
+    }
+}
@@ -0,0 +1,61 @@
+package demo.completable_future.common;
+
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Executor;
+import java.util.function.Supplier;
+
+// A CompletableFuture whose *Async stages without an explicit executor run on the given executor
+// instead of ForkJoinPool.commonPool(). All dependent stages are created by newIncompleteFuture,
+// so the whole chain (including the stages returned by thenCompose) stays bound to the same executor.
+public class ExecutorBoundFuture<T> extends CompletableFuture<T> {
+
+    private final Executor executor;
+
+    public ExecutorBoundFuture(Executor executor) {
+        this.executor = Objects.requireNonNull(executor);
+    }
+
+    public static <T> ExecutorBoundFuture<T> supplyAsync(Supplier<T> supplier, Executor executor) {
+        ExecutorBoundFuture<T> future = new ExecutorBoundFuture<>(executor);
+        future.completeAsync(supplier);
+        return future;
+    }
+
+    public static ExecutorBoundFuture<Void> runAsync(Runnable runnable, Executor executor) {
+        return supplyAsync(() -> {
+            runnable.run();
+            return null;
+        }, executor);
+    }
+
+    public static <T> ExecutorBoundFuture<T> completedFuture(T value, Executor executor) {
+        ExecutorBoundFuture<T> future = new ExecutorBoundFuture<>(executor);
+        future.complete(value);
+        return future;
+    }
+
+    // binds a stage created elsewhere (e.g. by a client library) to the executor
+    public static <T> ExecutorBoundFuture<T> of(CompletionStage<T> stage, Executor executor) {
+        ExecutorBoundFuture<T> future = new ExecutorBoundFuture<>(executor);
+        stage.whenComplete((value, t) -> {
+            if (t == null) {
+                future.complete(value);
+            } else {
+                future.completeExceptionally(t);
+            }
+        });
+        return future;
+    }
+
+    @Override
+    public Executor defaultExecutor() {
+        return executor;
+    }
+
+    @Override
+    public <U> CompletableFuture<U> newIncompleteFuture() {
+        return new ExecutorBoundFuture<>(executor);
+    }
+}
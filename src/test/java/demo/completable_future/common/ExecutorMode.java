@@ -0,0 +1,59 @@
+package demo.completable_future.common;
+
+import java.util.Locale;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public enum ExecutorMode {
+
+    // the default executor of CompletableFuture: ForkJoinPool.commonPool(),
+    // or a new thread per task if the parallelism of the common pool is less than 2
+    COMMON {
+        @Override
+        public Executor newExecutor(int threads) {
+            return new CompletableFuture<Void>().defaultExecutor();
+        }
+    },
+    FIXED {
+        @Override
+        public Executor newExecutor(int threads) {
+            AtomicInteger counter = new AtomicInteger();
+            ThreadFactory threadFactory = runnable -> {
+                Thread thread = new Thread(runnable, "fixed-" + counter.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            };
+            return Executors.newFixedThreadPool(threads, threadFactory);
+        }
+    },
+    VIRTUAL {
+        @Override
+        public Executor newExecutor(int threads) {
+            return Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("virtual-", 1).factory());
+        }
+    };
+
+    public static final String PROPERTY = "demo.executor";
+    public static final String THREADS_PROPERTY = "demo.executor.threads";
+
+    // the thread count is used only by the FIXED mode
+    public abstract Executor newExecutor(int threads);
+
+    public static ExecutorMode fromSystemProperty() {
+        return valueOf(System.getProperty(PROPERTY, COMMON.name()).toUpperCase(Locale.ROOT));
+    }
+
+    public static int threadsFromSystemProperty() {
+        return Integer.getInteger(THREADS_PROPERTY, Runtime.getRuntime().availableProcessors());
+    }
+
+    public static void shutdown(Executor executor) {
+        if (executor instanceof ExecutorService) {
+            ((ExecutorService) executor).shutdown();
+        }
+    }
+}
@@ -0,0 +1,162 @@
+package demo.completable_future.common;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+// Converts legacy Futures (e.g. from ExecutorService.submit) into CompletableFutures without a thread per waiter:
+// a single shared poller thread checks isDone() of all the pending futures and completes the adapted ones.
+// The polling is adaptive: the interval is reset to the minimum when a pass completes a future,
+// and doubles up to the maximum after each pass that doesn't; the poller parks when nothing is pending.
+// A Future of a CompletingExecutorService is adapted directly, without polling.
+// Cancelling an adapted future cancels (and interrupts) the legacy one.
+// The poller completes the adapted futures through the given executor, so their synchronous dependents
+// don't run on the poller thread and can't delay the polling of the other futures.
+public class FutureAdapter implements AutoCloseable {
+
+    private final long minIntervalNanos;
+    private final long maxIntervalNanos;
+    private final Executor executor;
+    private final Queue<Pending<?>> registered = new ConcurrentLinkedQueue<>();
+    private final Thread thread;
+    private volatile boolean idle;
+    private volatile boolean closed;
+
+    private FutureAdapter(long minInterval, long maxInterval, TimeUnit unit, Executor executor) {
+        if (minInterval <= 0 || maxInterval < minInterval) {
+            throw new IllegalArgumentException("invalid polling intervals: " + minInterval + ", " + maxInterval);
+        }
+        this.minIntervalNanos = unit.toNanos(minInterval);
+        this.maxIntervalNanos = unit.toNanos(maxInterval);
+        this.executor = Objects.requireNonNull(executor);
+        this.thread = new Thread(this::run, "future-poller");
+        this.thread.setDaemon(true);
+    }
+
+    // the poller thread is started once the adapter is constructed
+    public static FutureAdapter start(long minInterval, long maxInterval, TimeUnit unit, Executor executor) {
+        FutureAdapter adapter = new FutureAdapter(minInterval, maxInterval, unit, executor);
+        adapter.thread.start();
+        return adapter;
+    }
+
+    public <T> CompletableFuture<T> adapt(Future<T> future) {
+        if (future instanceof CompletableFuture) {
+            return (CompletableFuture<T>) future;
+        }
+        if (future instanceof CompletingExecutorService.CompletingTask) {
+            return ((CompletingExecutorService.CompletingTask<T>) future).completion();
+        }
+        if (closed) {
+            throw new IllegalStateException("future adapter is closed");
+        }
+        Pending<T> pending = new Pending<>(future);
+        if (!pending.tryComplete(Runnable::run)) { // a done future is completed by the caller
+            registered.add(pending);
+            if (closed && registered.remove(pending)) { // closed concurrently, after the poller drained the queue
+                pending.cancel();
+            } else if (idle) {
+                LockSupport.unpark(thread);
+            }
+        }
+        return pending.target;
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        LockSupport.unpark(thread);
+    }
+
+    private void run() {
+        List<Pending<?>> pending = new ArrayList<>();
+        long intervalNanos = minIntervalNanos;
+        while (!closed) {
+            Pending<?> p;
+            while ((p = registered.poll()) != null) {
+                pending.add(p);
+            }
+            if (pending.isEmpty()) {
+                idle = true;
+                if (registered.isEmpty()) { // re-checked after idle is set, so a registration can't be missed
+                    LockSupport.park(this);
+                }
+                idle = false;
+                intervalNanos = minIntervalNanos;
+                continue;
+            }
+
+            boolean completed = false;
+            for (int i = pending.size() - 1; i >= 0; i--) {
+                if (pending.get(i).tryComplete(executor)) {
+                    // swap-remove, the order of the pending futures doesn't matter
+                    pending.set(i, pending.get(pending.size() - 1));
+                    pending.remove(pending.size() - 1);
+                    completed = true;
+                }
+            }
+            intervalNanos = completed ? minIntervalNanos : Math.min(maxIntervalNanos, intervalNanos * 2);
+            LockSupport.parkNanos(this, intervalNanos);
+        }
+        Pending<?> p;
+        while ((p = registered.poll()) != null) {
+            p.cancel();
+        }
+        pending.forEach(Pending::cancel);
+    }
+
+    private static class Pending<T> {
+
+        final Future<T> source;
+        final CompletableFuture<T> target = new CompletableFuture<>();
+
+        Pending(Future<T> source) {
+            this.source = source;
+        }
+
+        // returns true if the pair is done: the source has completed (the target is completed by the executor),
+        // or the target has been cancelled
+        boolean tryComplete(Executor executor) {
+            if (target.isDone()) {
+                source.cancel(true);
+                return true;
+            }
+            if (!source.isDone()) {
+                return false;
+            }
+            try {
+                executor.execute(this::complete);
+            } catch (RejectedExecutionException e) {
+                complete();
+            }
+            return true;
+        }
+
+        private void complete() {
+            try {
+                target.complete(source.get());
+            } catch (ExecutionException e) {
+                target.completeExceptionally(e.getCause());
+            } catch (CancellationException e) {
+                target.cancel(false);
+            } catch (InterruptedException e) { // not expected, the source is done
+                Thread.currentThread().interrupt();
+                target.completeExceptionally(e);
+            }
+        }
+
+        void cancel() {
+            target.completeExceptionally(new IllegalStateException("future adapter is closed"));
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package demo.completable_future.common;
+
+import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+// Hedged requests: the primary request is sent at once, and if it has not completed
+// after the given percentile of the recently observed latencies, a backup request is sent.
+// The first of the two to complete wins (as with applyToEither) and the other one is cancelled.
+public class Hedging {
+
+    private final double percentile;
+    private final Executor executor;
+    private final long[] samples;
+    private int sampleCount; // guarded by this
+    private volatile long delayNanos;
+
+    public Hedging(double percentile, long initialDelay, TimeUnit unit, int window, Executor executor) {
+        if (percentile <= 0 || percentile >= 1) {
+            throw new IllegalArgumentException("percentile must be between 0 and 1: " + percentile);
+        }
+        if (window <= 0) {
+            throw new IllegalArgumentException("window must be positive: " + window);
+        }
+        this.percentile = percentile;
+        this.executor = executor;
+        this.samples = new long[window];
+        this.delayNanos = unit.toNanos(initialDelay);
+    }
+
+    public long delay(TimeUnit unit) {
+        return unit.convert(delayNanos, TimeUnit.NANOSECONDS);
+    }
+
+    public <T> CompletableFuture<T> call(Supplier<? extends CompletableFuture<T>> request) {
+        CompletableFuture<T> primary = timed(request);
+        if (primary.isDone()) {
+            return primary;
+        }
+
+        AtomicReference<CompletableFuture<T>> backupRequest = new AtomicReference<>();
+        CompletableFuture<T> backup = CompletableFuture
+                .supplyAsync(() -> null, CompletableFuture.delayedExecutor(delayNanos, TimeUnit.NANOSECONDS, executor))
+                .thenCompose(ignored -> {
+                    if (primary.isDone()) {
+                        return primary;
+                    }
+                    CompletableFuture<T> future = timed(request);
+                    backupRequest.set(future);
+                    // the result can't complete by the backup before this function returns, so if it is already
+                    // completed, it was completed by the primary, possibly before backupRequest was set
+                    if (primary.isDone()) {
+                        future.cancel(true);
+                    }
+                    return future;
+                });
+
+        CompletableFuture<T> result = primary.applyToEither(backup, Function.identity());
+        result.whenComplete((value, t) -> {
+            primary.cancel(true);
+            CompletableFuture<T> future = backupRequest.get();
+            if (future != null) {
+                future.cancel(true);
+            }
+        });
+        return result;
+    }
+
+    private <T> CompletableFuture<T> timed(Supplier<? extends CompletableFuture<T>> request) {
+        long start = System.nanoTime();
+        CompletableFuture<T> future = request.get();
+        future.thenRun(() -> record(System.nanoTime() - start)); // cancelled losers are not recorded
+        return future;
+    }
+
+    // the delay is recalculated once per full window of samples
+    private synchronized void record(long latencyNanos) {
+        samples[sampleCount++] = latencyNanos;
+        if (sampleCount == samples.length) {
+            long[] sorted = samples.clone();
+            Arrays.sort(sorted);
+            delayNanos = sorted[(int) (sorted.length * percentile)];
+            sampleCount = 0;
+        }
+    }
+}
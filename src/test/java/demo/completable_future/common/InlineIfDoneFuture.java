@@ -0,0 +1,114 @@
+package demo.completable_future.common;
+
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Executor;
+import java.util.function.BiConsumer;
+import java.util.function.BiFunction;
+import java.util.function.Supplier;
+
+// A CompletableFuture whose *Async stages without an explicit executor run inline on the calling thread
+// if this future is already done when the stage is created (e.g. a cache hit returned as a completed future),
+// instead of paying for a hop to the executor. Otherwise they run on the given executor, as with ExecutorBoundFuture.
+// A callback that creates further *Async stages on done futures (e.g. a recursive thenComposeAsync) would nest
+// deeper and deeper on the same stack, so beyond the given depth of inline callbacks per thread the callback
+// is offloaded to the executor, which starts over with an empty stack.
+// The stages of two sources (thenCombineAsync, thenAcceptBothAsync, runAfterBothAsync) run inline only if both sources
+// are done, otherwise the callback would run on the thread that completes the other source.
+public class InlineIfDoneFuture<T> extends CompletableFuture<T> {
+
+    private static final ThreadLocal<int[]> DEPTH = ThreadLocal.withInitial(() -> new int[1]);
+
+    private final Executor executor;
+    private final int maxDepth;
+    private final Executor inline = this::runInline;
+
+    public InlineIfDoneFuture(Executor executor, int maxDepth) {
+        if (maxDepth < 0) {
+            throw new IllegalArgumentException("maxDepth must not be negative: " + maxDepth);
+        }
+        this.executor = Objects.requireNonNull(executor);
+        this.maxDepth = maxDepth;
+    }
+
+    public static <T> InlineIfDoneFuture<T> supplyAsync(Supplier<T> supplier, Executor executor, int maxDepth) {
+        InlineIfDoneFuture<T> future = new InlineIfDoneFuture<>(executor, maxDepth);
+        future.completeAsync(supplier);
+        return future;
+    }
+
+    public static <T> InlineIfDoneFuture<T> completedFuture(T value, Executor executor, int maxDepth) {
+        InlineIfDoneFuture<T> future = new InlineIfDoneFuture<>(executor, maxDepth);
+        future.complete(value);
+        return future;
+    }
+
+    // applies the policy to a stage created elsewhere, the returned future is done if the stage is done
+    public static <T> InlineIfDoneFuture<T> of(CompletionStage<T> stage, Executor executor, int maxDepth) {
+        InlineIfDoneFuture<T> future = new InlineIfDoneFuture<>(executor, maxDepth);
+        stage.whenComplete((value, t) -> {
+            if (t == null) {
+                future.complete(value);
+            } else {
+                future.completeExceptionally(t);
+            }
+        });
+        return future;
+    }
+
+    // called by thenApplyAsync and the other *Async methods when the stage is created;
+    // a stage created on a done future executes its callback right away, on the calling thread
+    @Override
+    public Executor defaultExecutor() {
+        return isDone() ? inline : executor;
+    }
+
+    @Override
+    public <U, V> CompletableFuture<V> thenCombineAsync(CompletionStage<? extends U> other,
+                                                        BiFunction<? super T, ? super U, ? extends V> fn) {
+        return thenCombineAsync(other, fn, bothDone(other) ? inline : executor);
+    }
+
+    @Override
+    public <U> CompletableFuture<Void> thenAcceptBothAsync(CompletionStage<? extends U> other,
+                                                           BiConsumer<? super T, ? super U> action) {
+        return thenAcceptBothAsync(other, action, bothDone(other) ? inline : executor);
+    }
+
+    @Override
+    public CompletableFuture<Void> runAfterBothAsync(CompletionStage<?> other, Runnable action) {
+        return runAfterBothAsync(other, action, bothDone(other) ? inline : executor);
+    }
+
+    @Override
+    public <U> CompletableFuture<U> newIncompleteFuture() {
+        return new InlineIfDoneFuture<>(executor, maxDepth);
+    }
+
+    // a stage that can't be converted to a CompletableFuture is treated as not done
+    private boolean bothDone(CompletionStage<?> other) {
+        if (!isDone()) {
+            return false;
+        }
+        try {
+            return other.toCompletableFuture().isDone();
+        } catch (UnsupportedOperationException e) {
+            return false;
+        }
+    }
+
+    private void runInline(Runnable task) {
+        int[] depth = DEPTH.get();
+        if (depth[0] >= maxDepth) {
+            executor.execute(task);
+            return;
+        }
+        depth[0]++;
+        try {
+            task.run();
+        } finally {
+            depth[0]--;
+        }
+    }
+}
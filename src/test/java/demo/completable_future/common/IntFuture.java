@@ -0,0 +1,275 @@
+package demo.completable_future.common;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Executor;
+import java.util.function.IntBinaryOperator;
+import java.util.function.IntConsumer;
+import java.util.function.IntFunction;
+import java.util.function.IntSupplier;
+import java.util.function.IntToDoubleFunction;
+import java.util.function.IntToLongFunction;
+import java.util.function.IntUnaryOperator;
+import java.util.function.ToIntFunction;
+
+// A future of an int value: the value is stored unboxed and passed unboxed to the primitive functions
+// of the dependent stages, so a pipeline of IntFuture, LongFuture and DoubleFuture stages doesn't box its values.
+// A value is boxed only at the boundary with CompletionStage, by toCompletableFuture() and of().
+// The failures are propagated to the dependent stages, and join() throws them wrapped in CompletionException.
+public class IntFuture extends PrimitiveFuture {
+
+    private int value; // published by the completion
+
+    public static IntFuture completedFuture(int value) {
+        IntFuture future = new IntFuture();
+        future.complete(value);
+        return future;
+    }
+
+    public static IntFuture failedFuture(Throwable t) {
+        IntFuture future = new IntFuture();
+        future.completeExceptionally(t);
+        return future;
+    }
+
+    public static IntFuture supplyAsync(IntSupplier supplier, Executor executor) {
+        IntFuture future = new IntFuture();
+        try {
+            executor.execute(() -> {
+                try {
+                    future.complete(supplier.getAsInt());
+                } catch (Throwable t) {
+                    future.completeExceptionally(t);
+                }
+            });
+        } catch (Throwable t) {
+            future.completeExceptionally(t);
+        }
+        return future;
+    }
+
+    // unboxes the value of a stage created elsewhere
+    public static IntFuture of(CompletionStage<? extends Integer> stage) {
+        IntFuture future = new IntFuture();
+        stage.whenComplete((value, t) -> {
+            if (t != null) {
+                future.completeExceptionally(unwrap(t));
+            } else if (value == null) {
+                future.completeExceptionally(new NullPointerException("the stage completed with null"));
+            } else {
+                future.complete(value);
+            }
+        });
+        return future;
+    }
+
+    // the dependents are completed before this method returns, even if it's called by a dependent of another future
+    public boolean complete(int value) {
+        return complete(value, false);
+    }
+
+    // called by the dependent actions, see PrimitiveFuture
+    void completeNested(int value) {
+        complete(value, true);
+    }
+
+    private boolean complete(int value, boolean nested) {
+        if (!startCompletion()) {
+            return false;
+        }
+        this.value = value;
+        finishCompletion(nested);
+        return true;
+    }
+
+    public int join() {
+        await();
+        return value;
+    }
+
+    public int getNow(int valueIfAbsent) {
+        if (!isDone()) {
+            return valueIfAbsent;
+        }
+        return join();
+    }
+
+    public IntFuture thenApply(IntUnaryOperator fn) {
+        IntFuture future = new IntFuture();
+        whenDone(new Dependent() {
+            @Override
+            public void run() {
+                if (propagateFailure(future)) {
+                    return;
+                }
+                try {
+                    future.completeNested(fn.applyAsInt(value));
+                } catch (Throwable t) {
+                    future.completeExceptionallyNested(t);
+                }
+            }
+        });
+        return future;
+    }
+
+    public IntFuture thenApplyAsync(IntUnaryOperator fn, Executor executor) {
+        IntFuture future = new IntFuture();
+        whenDoneAsync(executor, future, new Dependent() {
+            @Override
+            public void run() {
+                if (propagateFailure(future)) {
+                    return;
+                }
+                try {
+                    future.completeNested(fn.applyAsInt(value));
+                } catch (Throwable t) {
+                    future.completeExceptionallyNested(t);
+                }
+            }
+        });
+        return future;
+    }
+
+    public LongFuture thenApplyToLong(IntToLongFunction fn) {
+        LongFuture future = new LongFuture();
+        whenDone(new Dependent() {
+            @Override
+            public void run() {
+                if (propagateFailure(future)) {
+                    return;
+                }
+                try {
+                    future.completeNested(fn.applyAsLong(value));
+                } catch (Throwable t) {
+                    future.completeExceptionallyNested(t);
+                }
+            }
+        });
+        return future;
+    }
+
+    public LongFuture thenApplyToLongAsync(IntToLongFunction fn, Executor executor) {
+        LongFuture future = new LongFuture();
+        whenDoneAsync(executor, future, new Dependent() {
+            @Override
+            public void run() {
+                if (propagateFailure(future)) {
+                    return;
+                }
+                try {
+                    future.completeNested(fn.applyAsLong(value));
+                } catch (Throwable t) {
+                    future.completeExceptionallyNested(t);
+                }
+            }
+        });
+        return future;
+    }
+
+    public DoubleFuture thenApplyToDouble(IntToDoubleFunction fn) {
+        DoubleFuture future = new DoubleFuture();
+        whenDone(new Dependent() {
+            @Override
+            public void run() {
+                if (propagateFailure(future)) {
+                    return;
+                }
+                try {
+                    future.completeNested(fn.applyAsDouble(value));
+                } catch (Throwable t) {
+                    future.completeExceptionallyNested(t);
+                }
+            }
+        });
+        return future;
+    }
+
+    public DoubleFuture thenApplyToDoubleAsync(IntToDoubleFunction fn, Executor executor) {
+        DoubleFuture future = new DoubleFuture();
+        whenDoneAsync(executor, future, new Dependent() {
+            @Override
+            public void run() {
+                if (propagateFailure(future)) {
+                    return;
+                }
+                try {
+                    future.completeNested(fn.applyAsDouble(value));
+                } catch (Throwable t) {
+                    future.completeExceptionallyNested(t);
+                }
+            }
+        });
+        return future;
+    }
+
+    // the value is passed unboxed, only the result is an object
+    public <U> CompletableFuture<U> thenApplyToObj(IntFunction<? extends U> fn) {
+        CompletableFuture<U> future = new CompletableFuture<>();
+        whenDone(new Dependent() {
+            @Override
+            public void run() {
+                Throwable failure = failure();
+                if (failure != null) {
+                    future.completeExceptionally(failure);
+                    return;
+                }
+                try {
+                    future.complete(fn.apply(value));
+                } catch (Throwable t) {
+                    future.completeExceptionally(t);
+                }
+            }
+        });
+        return future;
+    }
+
+    public IntFuture thenCombine(IntFuture other, IntBinaryOperator fn) {
+        IntFuture future = new IntFuture();
+        whenBothDone(other, new Dependent() {
+            @Override
+            public void run() {
+                if (propagateFailure(future) || other.propagateFailure(future)) {
+                    return;
+                }
+                try {
+                    future.completeNested(fn.applyAsInt(value, other.value));
+                } catch (Throwable t) {
+                    future.completeExceptionallyNested(t);
+                }
+            }
+        });
+        return future;
+    }
+
+    public CompletableFuture<Void> thenAccept(IntConsumer action) {
+        return thenApplyToObj(value -> {
+            action.accept(value);
+            return null;
+        });
+    }
+
+    public IntFuture exceptionally(ToIntFunction<Throwable> fn) {
+        IntFuture future = new IntFuture();
+        whenDone(new Dependent() {
+            @Override
+            public void run() {
+                Throwable failure = failure();
+                if (failure == null) {
+                    future.completeNested(value);
+                    return;
+                }
+                try {
+                    future.completeNested(fn.applyAsInt(failure));
+                } catch (Throwable t) {
+                    future.completeExceptionallyNested(t);
+                }
+            }
+        });
+        return future;
+    }
+
+    // boxes the value once, at the boundary with the CompletionStage API
+    public CompletableFuture<Integer> toCompletableFuture() {
+        return thenApplyToObj(Integer::valueOf);
+    }
+}
@@ -0,0 +1,46 @@
+package demo.completable_future.common;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+// A distribution of simulated service latencies, sampled in nanoseconds.
+public interface LatencyDistribution {
+
+    long sampleNanos();
+
+    // blocks the calling thread for a sampled latency
+    default void sleep() {
+        long deadline = System.nanoTime() + sampleNanos();
+        long remaining;
+        while ((remaining = deadline - System.nanoTime()) > 0) {
+            LockSupport.parkNanos(remaining);
+            if (Thread.interrupted()) {
+                throw new RuntimeException(new InterruptedException());
+            }
+        }
+    }
+
+    static LatencyDistribution constant(long latency, TimeUnit unit) {
+        long nanos = unit.toNanos(latency);
+        return () -> nanos;
+    }
+
+    static LatencyDistribution uniform(long min, long max, TimeUnit unit) {
+        long minNanos = unit.toNanos(min);
+        long maxNanos = unit.toNanos(max);
+        return () -> ThreadLocalRandom.current().nextLong(minNanos, maxNanos + 1);
+    }
+
+    static LatencyDistribution exponential(long mean, TimeUnit unit) {
+        long meanNanos = unit.toNanos(mean);
+        return () -> (long) (-meanNanos * Math.log(1 - ThreadLocalRandom.current().nextDouble()));
+    }
+
+    // heavy-tailed: most samples are near the scale, a few are many times larger (capped at the max)
+    static LatencyDistribution pareto(long scale, double shape, long max, TimeUnit unit) {
+        long scaleNanos = unit.toNanos(scale);
+        long maxNanos = unit.toNanos(max);
+        return () -> Math.min(maxNanos, (long) (scaleNanos / Math.pow(1 - ThreadLocalRandom.current().nextDouble(), 1 / shape)));
+    }
+}
@@ -0,0 +1,155 @@
+package demo.completable_future.common;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.util.Formatter;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Supplier;
+
+// An open-loop load generator: requests are started at a constant arrival rate whether or not
+// the previous requests have completed, as the requests of independent clients are.
+// The latency of a request is measured from its intended start time, not from the time it was actually started,
+// so a stall of the system under test (or of the generator) counts against every request that should have been
+// started during the stall (no coordinated omission).
+// For the same reason the requests that haven't completed when the timeout expires are recorded with their latency
+// so far and reported as unfinished: the percentiles are then lower bounds.
+public class LoadGenerator {
+
+    private final double requestsPerSecond;
+    private final long durationNanos;
+
+    public LoadGenerator(double requestsPerSecond, long duration, TimeUnit unit) {
+        if (requestsPerSecond <= 0) {
+            throw new IllegalArgumentException("requestsPerSecond must be positive: " + requestsPerSecond);
+        }
+        this.requestsPerSecond = requestsPerSecond;
+        this.durationNanos = unit.toNanos(duration);
+    }
+
+    // starts the requests from the calling thread, and waits for the outstanding requests at most for the timeout
+    public Result run(Supplier<? extends CompletionStage<?>> request, long timeout, TimeUnit unit) {
+        long intervalNanos = (long) (TimeUnit.SECONDS.toNanos(1) / requestsPerSecond);
+        long requests = durationNanos / intervalNanos;
+        Recorder latencies = new Recorder(3);
+        AtomicIntegerArray recorded = new AtomicIntegerArray((int) requests); // 1 once the latency is claimed
+        AtomicLong recordedCount = new AtomicLong(); // the claimed latencies that have been written
+        LongAdder failures = new LongAdder();
+        AtomicLong lastCompletion = new AtomicLong();
+        CompletableFuture<?>[] futures = new CompletableFuture<?>[(int) requests];
+
+        long start = System.nanoTime();
+        for (int i = 0; i < requests; i++) {
+            int index = i;
+            long intended = start + i * intervalNanos;
+            long delay = intended - System.nanoTime();
+            if (delay > 0) {
+                LockSupport.parkNanos(delay);
+            }
+            CompletableFuture<?> future;
+            try {
+                future = request.get().toCompletableFuture();
+            } catch (Throwable t) {
+                future = CompletableFuture.failedFuture(t);
+            }
+            futures[i] = future.whenComplete((value, t) -> {
+                if (!recorded.compareAndSet(index, 0, 1)) {
+                    return; // completed after the timeout, already recorded as unfinished
+                }
+                long now = System.nanoTime();
+                latencies.recordValue(now - intended);
+                lastCompletion.accumulateAndGet(now, Math::max);
+                if (t != null) {
+                    failures.increment();
+                }
+                recordedCount.incrementAndGet();
+            });
+        }
+        try {
+            CompletableFuture.allOf(futures).get(timeout, unit);
+        } catch (Exception e) {
+            // the requests that haven't completed are recorded below
+        }
+
+        long now = System.nanoTime();
+        long unfinished = 0;
+        for (int i = 0; i < requests; i++) {
+            if (recorded.compareAndSet(i, 0, 1)) {
+                latencies.recordValue(now - (start + i * intervalNanos));
+                unfinished++;
+                recordedCount.incrementAndGet();
+            }
+        }
+        while (recordedCount.get() < requests) { // the callbacks that claimed a latency and haven't written it yet
+            Thread.onSpinWait();
+        }
+
+        Histogram histogram = latencies.getIntervalHistogram();
+        return new Result(requests, histogram, unfinished, failures.sum(), Math.max(lastCompletion.get(), start) - start);
+    }
+
+    public static class Result {
+
+        private final long requests;
+        private final Histogram latencies;
+        private final long unfinished;
+        private final long failures;
+        private final long elapsedNanos;
+
+        private Result(long requests, Histogram latencies, long unfinished, long failures, long elapsedNanos) {
+            this.requests = requests;
+            this.latencies = latencies;
+            this.unfinished = unfinished;
+            this.failures = failures;
+            this.elapsedNanos = elapsedNanos;
+        }
+
+        public long requests() {
+            return requests;
+        }
+
+        public long completed() {
+            return requests - unfinished;
+        }
+
+        // not completed when the timeout expired
+        public long unfinished() {
+            return unfinished;
+        }
+
+        public long failures() {
+            return failures;
+        }
+
+        // completed requests per second, from the first intended start to the last completion
+        public double throughput() {
+            return elapsedNanos == 0 ? 0 : completed() * 1e9 / elapsedNanos;
+        }
+
+        // in nanoseconds, from the intended start time, until the timeout for the unfinished requests
+        public Histogram latencies() {
+            return latencies;
+        }
+
+        public String report(String name) {
+            Formatter out = new Formatter();
+            out.format("%s: requests=%d completed=%d unfinished=%d failures=%d throughput=%.1f/s%n",
+                    name, requests, completed(), unfinished, failures, throughput());
+            out.format("  latency (ms%s): p50=%.1f p90=%.1f p99=%.1f p99.9=%.1f max=%.1f%n",
+                    unfinished > 0 ? ", lower bounds" : "", millis(latencies.getValueAtPercentile(50)), millis(latencies.getValueAtPercentile(90)),
+                    millis(latencies.getValueAtPercentile(99)), millis(latencies.getValueAtPercentile(99.9)),
+                    millis(latencies.getMaxValue()));
+            return out.toString();
+        }
+
+        private static double millis(long nanos) {
+            return nanos / 1_000_000.0;
+        }
+    }
+}
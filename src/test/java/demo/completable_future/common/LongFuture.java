@@ -0,0 +1,272 @@
+package demo.completable_future.common;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Executor;
+import java.util.function.LongBinaryOperator;
+import java.util.function.LongConsumer;
+import java.util.function.LongFunction;
+import java.util.function.LongSupplier;
+import java.util.function.LongToDoubleFunction;
+import java.util.function.LongToIntFunction;
+import java.util.function.LongUnaryOperator;
+import java.util.function.ToLongFunction;
+
+// A future of a long value, see IntFuture.
+public class LongFuture extends PrimitiveFuture {
+
+    private long value; // published by the completion
+
+    public static LongFuture completedFuture(long value) {
+        LongFuture future = new LongFuture();
+        future.complete(value);
+        return future;
+    }
+
+    public static LongFuture failedFuture(Throwable t) {
+        LongFuture future = new LongFuture();
+        future.completeExceptionally(t);
+        return future;
+    }
+
+    public static LongFuture supplyAsync(LongSupplier supplier, Executor executor) {
+        LongFuture future = new LongFuture();
+        try {
+            executor.execute(() -> {
+                try {
+                    future.complete(supplier.getAsLong());
+                } catch (Throwable t) {
+                    future.completeExceptionally(t);
+                }
+            });
+        } catch (Throwable t) {
+            future.completeExceptionally(t);
+        }
+        return future;
+    }
+
+    // unboxes the value of a stage created elsewhere
+    public static LongFuture of(CompletionStage<? extends Long> stage) {
+        LongFuture future = new LongFuture();
+        stage.whenComplete((value, t) -> {
+            if (t != null) {
+                future.completeExceptionally(unwrap(t));
+            } else if (value == null) {
+                future.completeExceptionally(new NullPointerException("the stage completed with null"));
+            } else {
+                future.complete(value);
+            }
+        });
+        return future;
+    }
+
+    // the dependents are completed before this method returns, even if it's called by a dependent of another future
+    public boolean complete(long value) {
+        return complete(value, false);
+    }
+
+    // called by the dependent actions, see PrimitiveFuture
+    void completeNested(long value) {
+        complete(value, true);
+    }
+
+    private boolean complete(long value, boolean nested) {
+        if (!startCompletion()) {
+            return false;
+        }
+        this.value = value;
+        finishCompletion(nested);
+        return true;
+    }
+
+    public long join() {
+        await();
+        return value;
+    }
+
+    public long getNow(long valueIfAbsent) {
+        if (!isDone()) {
+            return valueIfAbsent;
+        }
+        return join();
+    }
+
+    public LongFuture thenApply(LongUnaryOperator fn) {
+        LongFuture future = new LongFuture();
+        whenDone(new Dependent() {
+            @Override
+            public void run() {
+                if (propagateFailure(future)) {
+                    return;
+                }
+                try {
+                    future.completeNested(fn.applyAsLong(value));
+                } catch (Throwable t) {
+                    future.completeExceptionallyNested(t);
+                }
+            }
+        });
+        return future;
+    }
+
+    public LongFuture thenApplyAsync(LongUnaryOperator fn, Executor executor) {
+        LongFuture future = new LongFuture();
+        whenDoneAsync(executor, future, new Dependent() {
+            @Override
+            public void run() {
+                if (propagateFailure(future)) {
+                    return;
+                }
+                try {
+                    future.completeNested(fn.applyAsLong(value));
+                } catch (Throwable t) {
+                    future.completeExceptionallyNested(t);
+                }
+            }
+        });
+        return future;
+    }
+
+    public IntFuture thenApplyToInt(LongToIntFunction fn) {
+        IntFuture future = new IntFuture();
+        whenDone(new Dependent() {
+            @Override
+            public void run() {
+                if (propagateFailure(future)) {
+                    return;
+                }
+                try {
+                    future.completeNested(fn.applyAsInt(value));
+                } catch (Throwable t) {
+                    future.completeExceptionallyNested(t);
+                }
+            }
+        });
+        return future;
+    }
+
+    public IntFuture thenApplyToIntAsync(LongToIntFunction fn, Executor executor) {
+        IntFuture future = new IntFuture();
+        whenDoneAsync(executor, future, new Dependent() {
+            @Override
+            public void run() {
+                if (propagateFailure(future)) {
+                    return;
+                }
+                try {
+                    future.completeNested(fn.applyAsInt(value));
+                } catch (Throwable t) {
+                    future.completeExceptionallyNested(t);
+                }
+            }
+        });
+        return future;
+    }
+
+    public DoubleFuture thenApplyToDouble(LongToDoubleFunction fn) {
+        DoubleFuture future = new DoubleFuture();
+        whenDone(new Dependent() {
+            @Override
+            public void run() {
+                if (propagateFailure(future)) {
+                    return;
+                }
+                try {
+                    future.completeNested(fn.applyAsDouble(value));
+                } catch (Throwable t) {
+                    future.completeExceptionallyNested(t);
+                }
+            }
+        });
+        return future;
+    }
+
+    public DoubleFuture thenApplyToDoubleAsync(LongToDoubleFunction fn, Executor executor) {
+        DoubleFuture future = new DoubleFuture();
+        whenDoneAsync(executor, future, new Dependent() {
+            @Override
+            public void run() {
+                if (propagateFailure(future)) {
+                    return;
+                }
+                try {
+                    future.completeNested(fn.applyAsDouble(value));
+                } catch (Throwable t) {
+                    future.completeExceptionallyNested(t);
+                }
+            }
+        });
+        return future;
+    }
+
+    // the value is passed unboxed, only the result is an object
+    public <U> CompletableFuture<U> thenApplyToObj(LongFunction<? extends U> fn) {
+        CompletableFuture<U> future = new CompletableFuture<>();
+        whenDone(new Dependent() {
+            @Override
+            public void run() {
+                Throwable failure = failure();
+                if (failure != null) {
+                    future.completeExceptionally(failure);
+                    return;
+                }
+                try {
+                    future.complete(fn.apply(value));
+                } catch (Throwable t) {
+                    future.completeExceptionally(t);
+                }
+            }
+        });
+        return future;
+    }
+
+    public LongFuture thenCombine(LongFuture other, LongBinaryOperator fn) {
+        LongFuture future = new LongFuture();
+        whenBothDone(other, new Dependent() {
+            @Override
+            public void run() {
+                if (propagateFailure(future) || other.propagateFailure(future)) {
+                    return;
+                }
+                try {
+                    future.completeNested(fn.applyAsLong(value, other.value));
+                } catch (Throwable t) {
+                    future.completeExceptionallyNested(t);
+                }
+            }
+        });
+        return future;
+    }
+
+    public CompletableFuture<Void> thenAccept(LongConsumer action) {
+        return thenApplyToObj(value -> {
+            action.accept(value);
+            return null;
+        });
+    }
+
+    public LongFuture exceptionally(ToLongFunction<Throwable> fn) {
+        LongFuture future = new LongFuture();
+        whenDone(new Dependent() {
+            @Override
+            public void run() {
+                Throwable failure = failure();
+                if (failure == null) {
+                    future.completeNested(value);
+                    return;
+                }
+                try {
+                    future.completeNested(fn.applyAsLong(failure));
+                } catch (Throwable t) {
+                    future.completeExceptionallyNested(t);
+                }
+            }
+        });
+        return future;
+    }
+
+    // boxes the value once, at the boundary with the CompletionStage API
+    public CompletableFuture<Long> toCompletableFuture() {
+        return thenApplyToObj(Long::valueOf);
+    }
+}
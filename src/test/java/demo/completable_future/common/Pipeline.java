@@ -0,0 +1,106 @@
+package demo.completable_future.common;
+
+import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Executor;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+// A builder of a computation pipeline that fuses consecutive synchronous thenApply/thenAccept/thenRun functions
+// into one completion instead of a CompletableFuture and a dependent completion per function.
+// A future is created only at an async, combine or compose boundary (the pending functions are fused into it)
+// or by toCompletableFuture().
+// As with a StringBuilder, the builder is mutable and not thread-safe: it is used by the thread that builds the pipeline.
+public class Pipeline<T> {
+
+    private CompletableFuture<?> source;
+    private Object[] functions = new Object[8]; // Function, Consumer or Runnable
+    private int size;
+
+    private Pipeline(CompletableFuture<?> source) {
+        this.source = source;
+    }
+
+    public static <T> Pipeline<T> from(CompletionStage<T> stage) {
+        return new Pipeline<>(stage.toCompletableFuture());
+    }
+
+    public <U> Pipeline<U> thenApply(Function<? super T, ? extends U> fn) {
+        return add(fn);
+    }
+
+    public Pipeline<Void> thenAccept(Consumer<? super T> action) {
+        return add(action);
+    }
+
+    public Pipeline<Void> thenRun(Runnable action) {
+        return add(action);
+    }
+
+    public <U> Pipeline<U> thenApplyAsync(Function<? super T, ? extends U> fn, Executor executor) {
+        Function<Object, T> fused = fuse();
+        return next(source.thenApplyAsync(value -> fn.apply(fused.apply(value)), executor));
+    }
+
+    public <U, V> Pipeline<V> thenCombine(CompletionStage<? extends U> other, BiFunction<? super T, ? super U, ? extends V> fn) {
+        Function<Object, T> fused = fuse();
+        return next(source.thenCombine(other, (value1, value2) -> fn.apply(fused.apply(value1), value2)));
+    }
+
+    public <U> Pipeline<U> thenCompose(Function<? super T, ? extends CompletionStage<U>> fn) {
+        Function<Object, T> fused = fuse();
+        return next(source.thenCompose(value -> fn.apply(fused.apply(value))));
+    }
+
+    @SuppressWarnings("unchecked")
+    public CompletableFuture<T> toCompletableFuture() {
+        if (size == 0) {
+            return (CompletableFuture<T>) source;
+        }
+        Function<Object, T> fused = fuse();
+        return this.<T>next(source.thenApply(fused)).toCompletableFuture();
+    }
+
+    @SuppressWarnings("unchecked")
+    private <U> Pipeline<U> add(Object function) {
+        if (size == functions.length) {
+            functions = Arrays.copyOf(functions, size * 2);
+        }
+        functions[size++] = function;
+        return (Pipeline<U>) this;
+    }
+
+    @SuppressWarnings("unchecked")
+    private <U> Pipeline<U> next(CompletableFuture<?> future) {
+        source = future;
+        Arrays.fill(functions, 0, size, null);
+        size = 0;
+        return (Pipeline<U>) this;
+    }
+
+    // a snapshot of the pending functions, applied in order in one stage
+    @SuppressWarnings("unchecked")
+    private Function<Object, T> fuse() {
+        if (size == 0) {
+            return value -> (T) value;
+        }
+        Object[] fused = Arrays.copyOf(functions, size);
+        return value -> {
+            Object result = value;
+            for (Object function : fused) {
+                if (function instanceof Function) {
+                    result = ((Function<Object, Object>) function).apply(result);
+                } else if (function instanceof Consumer) {
+                    ((Consumer<Object>) function).accept(result);
+                    result = null;
+                } else {
+                    ((Runnable) function).run();
+                    result = null;
+                }
+            }
+            return (T) result;
+        };
+    }
+}
@@ -0,0 +1,213 @@
+package demo.completable_future.common;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.ArrayDeque;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.locks.LockSupport;
+
+// The completion of IntFuture, LongFuture and DoubleFuture: a subclass stores its primitive value in a plain field,
+// this class stores the failure, the status and the stack of dependent actions, as CompletableFuture does.
+// A dependent action is a single object that is both the stack node and the callback, so a dependent stage
+// allocates the action and the dependent future, and no box for the value.
+// As in CompletableFuture.postComplete, complete() and completeExceptionally() run the dependents before they return,
+// and the futures completed by the dependents (the dependent stages) queue their own dependents to the per-thread loop
+// of the outermost completion instead of running them recursively, so a long chain of synchronous stages doesn't
+// overflow the stack. A callback may complete another future and join one of its dependent stages: the explicit
+// completion starts a loop of its own.
+public abstract class PrimitiveFuture {
+
+    private static final int PENDING = 0;
+    private static final int COMPLETING = 1;
+    private static final int SUCCEEDED = 2;
+    private static final int FAILED = 3;
+
+    private static final Dependent DONE = new Dependent() {
+        @Override
+        public void run() {
+        }
+    };
+    private static final ThreadLocal<Trampoline> TRAMPOLINE = ThreadLocal.withInitial(Trampoline::new);
+
+    private static final VarHandle STATUS;
+    private static final VarHandle HEAD;
+
+    static {
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.lookup();
+            STATUS = lookup.findVarHandle(PrimitiveFuture.class, "status", int.class);
+            HEAD = lookup.findVarHandle(PrimitiveFuture.class, "head", Dependent.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    private volatile int status;
+    private volatile Dependent head; // DONE after the dependents have been taken
+    private Throwable failure; // published by the write of status
+
+    public final boolean isDone() {
+        return status >= SUCCEEDED;
+    }
+
+    public final boolean isCompletedExceptionally() {
+        return status == FAILED;
+    }
+
+    public final boolean completeExceptionally(Throwable t) {
+        return completeExceptionally(t, false);
+    }
+
+    // called by the dependent actions
+    protected final void completeExceptionallyNested(Throwable t) {
+        completeExceptionally(t, true);
+    }
+
+    private boolean completeExceptionally(Throwable t, boolean nested) {
+        Objects.requireNonNull(t);
+        if (!STATUS.compareAndSet(this, PENDING, COMPLETING)) {
+            return false;
+        }
+        failure = t;
+        status = FAILED;
+        runDependents(nested);
+        return true;
+    }
+
+    // a subclass completes with a value by startCompletion(), the write of the value, and finishCompletion()
+    protected final boolean startCompletion() {
+        return STATUS.compareAndSet(this, PENDING, COMPLETING);
+    }
+
+    protected final void finishCompletion(boolean nested) {
+        status = SUCCEEDED;
+        runDependents(nested);
+    }
+
+    // null if this future is not done or succeeded
+    protected final Throwable failure() {
+        return status == FAILED ? failure : null;
+    }
+
+    // completes the dependent with the failure of this future, if this future failed
+    protected final boolean propagateFailure(PrimitiveFuture dependent) {
+        Throwable t = failure();
+        if (t == null) {
+            return false;
+        }
+        dependent.completeExceptionallyNested(t);
+        return true;
+    }
+
+    // runs the action when this future is done, at once if it is already done
+    protected final void whenDone(Dependent action) {
+        for (;;) {
+            Dependent current = head;
+            if (current == DONE) {
+                action.run();
+                return;
+            }
+            action.next = current;
+            if (HEAD.compareAndSet(this, current, action)) {
+                return;
+            }
+        }
+    }
+
+    protected final void whenDoneAsync(Executor executor, PrimitiveFuture dependent, Dependent action) {
+        whenDone(new Dependent() {
+            @Override
+            public void run() {
+                try {
+                    executor.execute(action);
+                } catch (Throwable t) {
+                    dependent.completeExceptionallyNested(t);
+                }
+            }
+        });
+    }
+
+    protected final void whenBothDone(PrimitiveFuture other, Dependent action) {
+        whenDone(new Dependent() {
+            @Override
+            public void run() {
+                other.whenDone(action);
+            }
+        });
+    }
+
+    // waits for the completion uninterruptibly, as CompletableFuture.join does
+    protected final void await() {
+        if (!isDone()) {
+            Thread thread = Thread.currentThread();
+            whenDone(new Dependent() {
+                @Override
+                public void run() {
+                    LockSupport.unpark(thread);
+                }
+            });
+            boolean interrupted = false;
+            while (!isDone()) {
+                LockSupport.park(this);
+                interrupted |= Thread.interrupted();
+            }
+            if (interrupted) {
+                thread.interrupt();
+            }
+        }
+        Throwable t = failure();
+        if (t != null) {
+            throw t instanceof CompletionException ? (CompletionException) t : new CompletionException(t);
+        }
+    }
+
+    // the failures of the dependents of a failed CompletableFuture are wrapped in CompletionException
+    protected static Throwable unwrap(Throwable t) {
+        return t instanceof CompletionException && t.getCause() != null ? t.getCause() : t;
+    }
+
+    // a nested completion inside the loop of a completion queues its dependents to that loop;
+    // any other completion runs its dependents in a loop of its own (the queue of the thread, or a new one if
+    // the completion is called by a dependent of the current loop)
+    private void runDependents(boolean nested) {
+        Dependent dependents = (Dependent) HEAD.getAndSet(this, DONE);
+        if (dependents == null) {
+            return;
+        }
+        Trampoline trampoline = TRAMPOLINE.get();
+        Queue<Dependent> outer = trampoline.running;
+        if (nested && outer != null) {
+            for (Dependent dependent = dependents; dependent != null; dependent = dependent.next) {
+                outer.add(dependent);
+            }
+            return;
+        }
+        Queue<Dependent> pending = outer == null ? trampoline.queue : new ArrayDeque<>();
+        trampoline.running = pending;
+        try {
+            for (Dependent dependent = dependents; dependent != null; dependent = dependent.next) {
+                pending.add(dependent);
+            }
+            Dependent dependent;
+            while ((dependent = pending.poll()) != null) {
+                dependent.run();
+            }
+        } finally {
+            trampoline.running = outer;
+        }
+    }
+
+    protected abstract static class Dependent implements Runnable {
+
+        private Dependent next;
+    }
+
+    private static class Trampoline {
+
+        final Queue<Dependent> queue = new ArrayDeque<>(); // reused by the outermost loops of the thread
+        Queue<Dependent> running; // the queue of the current loop, null if none
+    }
+}
@@ -0,0 +1,75 @@
+package demo.completable_future.common;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+// Retries a failed async call with exponential backoff, built on exceptionallyCompose.
+// The delay before the n-th retry is between half and all of min(maxDelay, initialDelay * 2^(n-1)) (equal jitter),
+// and the retry is scheduled with a delayed executor, so no thread sleeps during the backoff.
+// A call is not retried when the attempts are exhausted, the next attempt would start after the deadline,
+// or the shared retry budget has no tokens; then it fails with the exception of the last attempt.
+public class Retry {
+
+    private final int maxAttempts;
+    private final long initialDelayNanos;
+    private final long maxDelayNanos;
+    private final RetryBudget budget;
+    private final Executor executor;
+
+    public Retry(int maxAttempts, long initialDelay, long maxDelay, TimeUnit unit, RetryBudget budget, Executor executor) {
+        if (maxAttempts <= 0) {
+            throw new IllegalArgumentException("maxAttempts must be positive: " + maxAttempts);
+        }
+        this.maxAttempts = maxAttempts;
+        this.initialDelayNanos = unit.toNanos(initialDelay);
+        this.maxDelayNanos = unit.toNanos(maxDelay);
+        this.budget = budget;
+        this.executor = executor;
+    }
+
+    public <T> CompletableFuture<T> call(Supplier<? extends CompletionStage<T>> request) {
+        return attempt(request, 1, null);
+    }
+
+    public <T> CompletableFuture<T> call(Supplier<? extends CompletionStage<T>> request, Deadline deadline) {
+        return attempt(request, 1, deadline);
+    }
+
+    private <T> CompletableFuture<T> attempt(Supplier<? extends CompletionStage<T>> request, int attempt, Deadline deadline) {
+        CompletableFuture<T> future;
+        try {
+            future = request.get().toCompletableFuture();
+        } catch (Throwable t) {
+            future = CompletableFuture.failedFuture(t);
+        }
+        return future.exceptionallyCompose(t -> {
+            if (attempt >= maxAttempts) {
+                return CompletableFuture.failedFuture(t);
+            }
+            long delayNanos = delayNanos(attempt);
+            if (deadline != null && deadline.remaining(TimeUnit.NANOSECONDS) <= delayNanos) {
+                return CompletableFuture.failedFuture(t);
+            }
+            if (!budget.tryAcquire()) {
+                return CompletableFuture.failedFuture(t);
+            }
+            Executor delayed = CompletableFuture.delayedExecutor(delayNanos, TimeUnit.NANOSECONDS, executor);
+            return CompletableFuture.supplyAsync(() -> null, delayed)
+                    .thenCompose(ignored -> attempt(request, attempt + 1, deadline));
+        });
+    }
+
+    private long delayNanos(int attempt) {
+        long delay = initialDelayNanos;
+        for (int i = 1; i < attempt && delay < maxDelayNanos; i++) {
+            delay *= 2;
+        }
+        delay = Math.min(maxDelayNanos, delay);
+        long half = delay / 2;
+        return half + ThreadLocalRandom.current().nextLong(half + 1);
+    }
+}
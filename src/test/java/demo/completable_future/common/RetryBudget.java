@@ -0,0 +1,72 @@
+package demo.completable_future.common;
+
+import java.util.concurrent.TimeUnit;
+
+// A token bucket that limits the rate of retries across all the calls that share it,
+// so that a failing backend receives a bounded amount of extra load instead of a retry storm.
+// A retry takes a token; the tokens are refilled at a constant rate up to the capacity.
+// An unlimited budget always has a token and is not synchronized.
+public class RetryBudget {
+
+    private static final RetryBudget UNLIMITED = new RetryBudget();
+
+    private final boolean unlimited;
+    private final double capacity;
+    private final double tokensPerNano;
+    private double tokens; // guarded by this
+    private long refilledAt; // guarded by this
+
+    public RetryBudget(int capacity, double tokensPerSecond) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("capacity must be positive: " + capacity);
+        }
+        if (!(tokensPerSecond >= 0) || Double.isInfinite(tokensPerSecond)) {
+            throw new IllegalArgumentException("tokensPerSecond must be finite and not negative: " + tokensPerSecond);
+        }
+        this.unlimited = false;
+        this.capacity = capacity;
+        this.tokensPerNano = tokensPerSecond / TimeUnit.SECONDS.toNanos(1);
+        this.tokens = capacity;
+        this.refilledAt = System.nanoTime();
+    }
+
+    private RetryBudget() {
+        this.unlimited = true;
+        this.capacity = Double.POSITIVE_INFINITY;
+        this.tokensPerNano = 0;
+    }
+
+    public static RetryBudget unlimited() {
+        return UNLIMITED;
+    }
+
+    public boolean tryAcquire() {
+        if (unlimited) {
+            return true;
+        }
+        synchronized (this) {
+            refill();
+            if (tokens < 1) {
+                return false;
+            }
+            tokens--;
+            return true;
+        }
+    }
+
+    public double available() {
+        if (unlimited) {
+            return Double.POSITIVE_INFINITY;
+        }
+        synchronized (this) {
+            refill();
+            return tokens;
+        }
+    }
+
+    private void refill() {
+        long now = System.nanoTime();
+        tokens = Math.min(capacity, tokens + (now - refilledAt) * tokensPerNano);
+        refilledAt = now;
+    }
+}
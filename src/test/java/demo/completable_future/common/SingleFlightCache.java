@@ -0,0 +1,132 @@
+package demo.completable_future.common;
+
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+// A cache of futures: concurrent callers for the same key share one in-flight supplyAsync computation
+// (request coalescing, or single flight), so a burst of requests for a key makes one call to the backend.
+// A computed value is retained until its time-to-live expires or it's evicted (first in, first out)
+// when the cache exceeds its maximum size. An in-flight computation is never evicted, as the next caller for its key
+// would start a second one: while more than maximumSize computations are in flight, the cache exceeds its maximum size.
+// A failed computation is evicted as soon as it completes: the callers that shared it receive the failure,
+// the next caller starts a new computation.
+public class SingleFlightCache<K, V> {
+
+    private final Map<K, Entry<V>> entries = new ConcurrentHashMap<>();
+    private final Queue<Map.Entry<K, Entry<V>>> insertionOrder = new ConcurrentLinkedQueue<>();
+    private final Function<? super K, ? extends V> loader;
+    private final Executor executor;
+    private final int maximumSize;
+    private final long ttlNanos;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final AtomicInteger queued = new AtomicInteger();
+
+    public SingleFlightCache(Function<? super K, ? extends V> loader, Executor executor,
+                             int maximumSize, long ttl, TimeUnit unit) {
+        if (maximumSize <= 0) {
+            throw new IllegalArgumentException("maximumSize must be positive: " + maximumSize);
+        }
+        this.loader = loader;
+        this.executor = executor;
+        this.maximumSize = maximumSize;
+        this.ttlNanos = unit.toNanos(ttl);
+    }
+
+    // each caller receives its own copy, so cancelling it doesn't cancel the shared computation
+    public CompletableFuture<V> get(K key) {
+        long now = System.nanoTime();
+        Entry<V> entry = entries.get(key);
+        if (entry == null || entry.isExpired(now)) {
+            Entry<V> created = new Entry<>();
+            entry = entries.compute(key, (k, e) -> e == null || e.isExpired(now) ? created : e);
+            if (entry == created) {
+                misses.increment();
+                load(key, created);
+                return created.future.copy();
+            }
+        }
+        hits.increment();
+        return entry.future.copy();
+    }
+
+    public void invalidate(K key) {
+        entries.remove(key);
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    // including the callers that joined an in-flight computation
+    public long hits() {
+        return hits.sum();
+    }
+
+    public long misses() {
+        return misses.sum();
+    }
+
+    public double hitRate() {
+        long hits = hits();
+        long requests = hits + misses();
+        return requests == 0 ? 0 : (double) hits / requests;
+    }
+
+    private void load(K key, Entry<V> entry) {
+        insertionOrder.add(Map.entry(key, entry));
+        queued.incrementAndGet();
+        evict();
+        CompletableFuture.supplyAsync(() -> loader.apply(key), executor)
+                .whenComplete((value, t) -> {
+                    if (t == null) {
+                        entry.expiresAt = System.nanoTime() + ttlNanos; // written before the completion
+                        entry.future.complete(value);
+                        evict(); // the entries that were in flight at the last eviction can be evicted now
+                    } else {
+                        entries.remove(key, entry);
+                        entry.future.completeExceptionally(t);
+                    }
+                });
+    }
+
+    // each queued entry is visited at most once, in-flight entries are queued again
+    private void evict() {
+        for (int visits = queued.get(); visits > 0 && entries.size() > maximumSize; visits--) {
+            Map.Entry<K, Entry<V>> eldest = insertionOrder.poll();
+            if (eldest == null) {
+                break;
+            }
+            if (!eldest.getValue().future.isDone() && entries.get(eldest.getKey()) == eldest.getValue()) {
+                insertionOrder.add(eldest);
+                continue;
+            }
+            queued.decrementAndGet();
+            entries.remove(eldest.getKey(), eldest.getValue());
+        }
+        // entries that were expired, failed or invalidated are still in the queue: purge them, amortized O(1)
+        if (queued.get() > 2 * maximumSize) {
+            insertionOrder.removeIf(e -> entries.get(e.getKey()) != e.getValue());
+            queued.set(insertionOrder.size());
+        }
+    }
+
+    private static class Entry<V> {
+
+        final CompletableFuture<V> future = new CompletableFuture<>();
+        volatile long expiresAt;
+
+        // an in-flight entry doesn't expire
+        boolean isExpired(long now) {
+            return future.isDone() && now - expiresAt >= 0;
+        }
+    }
+}
@@ -0,0 +1,186 @@
+package demo.completable_future.common;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.util.Formatter;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BiConsumer;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+// Records per named stage the queue-wait time (from the completion of the previous stages to the start of this stage),
+// the execution time of the stage function and the threads that ran it.
+// The times are recorded in HDR histograms, which don't allocate when a value is recorded; the recording path
+// still allocates a wrapper of each task of an instrumented stage, as any executor decorator does.
+// Each export returns the values recorded since the previous export.
+// The threads of a stage are counted by name, except the virtual threads, which are counted together
+// (each task of a thread-per-task executor runs on a new thread), and at most MAX_THREADS names are kept.
+public class StageMetrics {
+
+    private static final Executor DIRECT = Runnable::run;
+    private static final int MAX_THREADS = 256;
+    private static final String VIRTUAL_THREADS = "virtual";
+    private static final String OTHER_THREADS = "other";
+
+    private final Map<String, Stage> stages = new ConcurrentHashMap<>();
+
+    public <T, U> CompletableFuture<U> thenApply(String name, CompletionStage<T> stage, Function<? super T, ? extends U> fn) {
+        return thenApplyAsync(name, stage, fn, DIRECT);
+    }
+
+    public <T, U> CompletableFuture<U> thenApplyAsync(String name, CompletionStage<T> stage, Function<? super T, ? extends U> fn, Executor executor) {
+        Stage metrics = stage(name);
+        return stage.toCompletableFuture().thenApplyAsync(value -> {
+            long start = metrics.started();
+            try {
+                return fn.apply(value);
+            } finally {
+                metrics.finished(start);
+            }
+        }, metrics.timed(executor));
+    }
+
+    public <T, U, V> CompletableFuture<V> thenCombine(String name, CompletionStage<T> stage1, CompletionStage<U> stage2,
+                                                      BiFunction<? super T, ? super U, ? extends V> fn) {
+        return thenCombineAsync(name, stage1, stage2, fn, DIRECT);
+    }
+
+    public <T, U, V> CompletableFuture<V> thenCombineAsync(String name, CompletionStage<T> stage1, CompletionStage<U> stage2,
+                                                           BiFunction<? super T, ? super U, ? extends V> fn, Executor executor) {
+        Stage metrics = stage(name);
+        return stage1.toCompletableFuture().thenCombineAsync(stage2, (value1, value2) -> {
+            long start = metrics.started();
+            try {
+                return fn.apply(value1, value2);
+            } finally {
+                metrics.finished(start);
+            }
+        }, metrics.timed(executor));
+    }
+
+    // the execution time covers only the function that creates the nested stage, not the nested stage itself
+    public <T, U> CompletableFuture<U> thenCompose(String name, CompletionStage<T> stage, Function<? super T, ? extends CompletionStage<U>> fn) {
+        return thenComposeAsync(name, stage, fn, DIRECT);
+    }
+
+    public <T, U> CompletableFuture<U> thenComposeAsync(String name, CompletionStage<T> stage, Function<? super T, ? extends CompletionStage<U>> fn,
+                                                        Executor executor) {
+        Stage metrics = stage(name);
+        return stage.toCompletableFuture().thenComposeAsync(value -> {
+            long start = metrics.started();
+            try {
+                return fn.apply(value);
+            } finally {
+                metrics.finished(start);
+            }
+        }, metrics.timed(executor));
+    }
+
+    public <T> CompletableFuture<T> whenComplete(String name, CompletionStage<T> stage, BiConsumer<? super T, ? super Throwable> action) {
+        return whenCompleteAsync(name, stage, action, DIRECT);
+    }
+
+    public <T> CompletableFuture<T> whenCompleteAsync(String name, CompletionStage<T> stage, BiConsumer<? super T, ? super Throwable> action,
+                                                      Executor executor) {
+        Stage metrics = stage(name);
+        return stage.toCompletableFuture().whenCompleteAsync((value, t) -> {
+            long start = metrics.started();
+            try {
+                action.accept(value, t);
+            } finally {
+                metrics.finished(start);
+            }
+        }, metrics.timed(executor));
+    }
+
+    public Stage stage(String name) {
+        return stages.computeIfAbsent(name, Stage::new);
+    }
+
+    // the percentiles in microseconds of the values recorded since the previous export
+    public String report() {
+        Formatter out = new Formatter();
+        for (Stage stage : new TreeMap<>(stages).values()) {
+            Histogram queueWait = stage.queueWait();
+            Histogram execution = stage.execution();
+            out.format("stage %s: count=%d threads=%s%n", stage.name, execution.getTotalCount(), stage.threads());
+            out.format("  queue wait (us): p50=%.1f p99=%.1f max=%.1f%n",
+                    micros(queueWait.getValueAtPercentile(50)), micros(queueWait.getValueAtPercentile(99)), micros(queueWait.getMaxValue()));
+            out.format("  execution (us): p50=%.1f p99=%.1f max=%.1f%n",
+                    micros(execution.getValueAtPercentile(50)), micros(execution.getValueAtPercentile(99)), micros(execution.getMaxValue()));
+        }
+        return out.toString();
+    }
+
+    private static double micros(long nanos) {
+        return nanos / 1_000.0;
+    }
+
+    public static class Stage {
+
+        private final String name;
+        private final Recorder queueWait = new Recorder(3);
+        private final Recorder execution = new Recorder(3);
+        private final Map<String, LongAdder> threads = new ConcurrentHashMap<>();
+
+        private Stage(String name) {
+            this.name = name;
+        }
+
+        public String name() {
+            return name;
+        }
+
+        // in nanoseconds, since the previous call
+        public Histogram queueWait() {
+            return queueWait.getIntervalHistogram();
+        }
+
+        // in nanoseconds, since the previous call
+        public Histogram execution() {
+            return execution.getIntervalHistogram();
+        }
+
+        public Map<String, Long> threads() {
+            Map<String, Long> result = new TreeMap<>();
+            threads.forEach((thread, count) -> result.put(thread, count.sum()));
+            return result;
+        }
+
+        // the executor is called when the previous stages have completed
+        private Executor timed(Executor executor) {
+            return task -> {
+                long ready = System.nanoTime();
+                executor.execute(() -> {
+                    queueWait.recordValue(System.nanoTime() - ready);
+                    task.run();
+                });
+            };
+        }
+
+        private long started() {
+            Thread thread = Thread.currentThread();
+            String key = thread.isVirtual() ? VIRTUAL_THREADS : thread.getName();
+            LongAdder count = threads.get(key);
+            if (count == null) {
+                if (threads.size() >= MAX_THREADS) {
+                    key = OTHER_THREADS;
+                }
+                count = threads.computeIfAbsent(key, name -> new LongAdder());
+            }
+            count.increment();
+            return System.nanoTime();
+        }
+
+        private void finished(long start) {
+            execution.recordValue(System.nanoTime() - start);
+        }
+    }
+}
@@ -0,0 +1,265 @@
+package demo.completable_future.common;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+// A declarative graph of async tasks: nodes are tasks with an estimated cost, edges are data dependencies.
+// A node is ready as soon as all its dependencies have completed, and up to the given parallelism ready nodes run at once.
+// When more nodes are ready than can run, the node on the longest remaining path to the end of the graph
+// (the critical path, by the estimated costs) runs first, which shortens the end-to-end latency compared with
+// running the ready nodes in arbitrary order.
+// A node whose dependency fails is not run and fails with the same exception.
+// Nodes can depend only on the nodes added before them, so the graph has no cycles. A graph is executed once.
+public class TaskGraph {
+
+    private final List<Node<?>> nodes = new ArrayList<>();
+    private boolean executed; // guarded by this
+
+    public synchronized <T> Node<T> add(String name, long cost, Supplier<? extends T> task) {
+        return add(name, cost, List.of(), values -> task.get());
+    }
+
+    @SuppressWarnings("unchecked")
+    public synchronized <A, T> Node<T> add(String name, long cost, Node<A> dependency, Function<? super A, ? extends T> task) {
+        return add(name, cost, List.of(dependency), values -> task.apply((A) values.get(0)));
+    }
+
+    @SuppressWarnings("unchecked")
+    public synchronized <A, B, T> Node<T> add(String name, long cost, Node<A> dependency1, Node<B> dependency2,
+                                              BiFunction<? super A, ? super B, ? extends T> task) {
+        return add(name, cost, List.of(dependency1, dependency2), values -> task.apply((A) values.get(0), (B) values.get(1)));
+    }
+
+    // the task receives the values of the dependencies in the given order
+    public synchronized <T> Node<T> add(String name, long cost, List<? extends Node<?>> dependencies,
+                                        Function<List<Object>, ? extends T> task) {
+        if (executed) {
+            throw new IllegalStateException("graph is already executed");
+        }
+        for (Node<?> dependency : dependencies) {
+            if (dependency.graph != this) {
+                throw new IllegalArgumentException("dependency is not in this graph: " + dependency.name);
+            }
+        }
+        Node<T> node = new Node<>(this, nodes.size(), name, cost, List.copyOf(dependencies), task);
+        for (Node<?> dependency : dependencies) {
+            dependency.successors.add(node);
+        }
+        nodes.add(node);
+        return node;
+    }
+
+    // the returned future is completed when all the nodes are completed, exceptionally with the first failure if any node failed
+    public CompletableFuture<Void> execute(Executor executor, int parallelism) {
+        if (parallelism <= 0) {
+            throw new IllegalArgumentException("parallelism must be positive: " + parallelism);
+        }
+        synchronized (this) {
+            if (executed) {
+                throw new IllegalStateException("graph is already executed");
+            }
+            executed = true;
+        }
+        prioritize();
+        return new Execution(executor, parallelism).start();
+    }
+
+    // the priority of a node is its cost plus the highest priority of its successors (the length of the longest path
+    // from the node to the end of the graph); the nodes are added in a topological order, so one reverse pass is enough
+    private void prioritize() {
+        for (int i = nodes.size() - 1; i >= 0; i--) {
+            Node<?> node = nodes.get(i);
+            long successors = 0;
+            for (Node<?> successor : node.successors) {
+                successors = Math.max(successors, successor.priority);
+            }
+            node.priority = node.cost + successors;
+        }
+    }
+
+    private class Execution {
+
+        private final Executor executor;
+        private final int parallelism;
+        private final Queue<Node<?>> ready = new PriorityBlockingQueue<>(16,
+                Comparator.<Node<?>>comparingLong(node -> -node.priority).thenComparingInt(node -> node.index));
+        private final AtomicInteger running = new AtomicInteger();
+        private final AtomicInteger remaining = new AtomicInteger(nodes.size());
+        private final AtomicReference<Throwable> firstFailure = new AtomicReference<>();
+        private final CompletableFuture<Void> result = new CompletableFuture<>();
+
+        Execution(Executor executor, int parallelism) {
+            this.executor = executor;
+            this.parallelism = parallelism;
+        }
+
+        CompletableFuture<Void> start() {
+            if (nodes.isEmpty()) {
+                result.complete(null);
+                return result;
+            }
+            for (Node<?> node : nodes) {
+                node.pending.set(node.dependencies.size());
+            }
+            for (Node<?> node : nodes) {
+                if (node.dependencies.isEmpty()) {
+                    ready.add(node);
+                }
+            }
+            dispatch();
+            return result;
+        }
+
+        // runs the ready nodes with the highest priority while there are free slots
+        private void dispatch() {
+            for (;;) {
+                int current = running.get();
+                if (current >= parallelism || ready.isEmpty()) {
+                    return;
+                }
+                if (!running.compareAndSet(current, current + 1)) {
+                    continue;
+                }
+                Node<?> node = ready.poll();
+                if (node == null) { // taken by another thread
+                    running.decrementAndGet();
+                    continue;
+                }
+                try {
+                    executor.execute(() -> {
+                        node.run();
+                        running.decrementAndGet();
+                        completed(node);
+                    });
+                } catch (Throwable t) {
+                    running.decrementAndGet();
+                    node.future.completeExceptionally(t);
+                    completed(node);
+                }
+            }
+        }
+
+        // a node that fails its successors completes them too, iteratively (the graph may be a long chain)
+        private void completed(Node<?> node) {
+            Deque<Node<?>> completed = new ArrayDeque<>();
+            completed.add(node);
+            while ((node = completed.poll()) != null) {
+                for (Node<?> successor : node.successors) {
+                    if (successor.pending.decrementAndGet() == 0) {
+                        Throwable failure = successor.failedDependency();
+                        if (failure == null) {
+                            ready.add(successor);
+                        } else {
+                            successor.future.completeExceptionally(failure);
+                            completed.add(successor);
+                        }
+                    }
+                }
+                Throwable failure = node.failure();
+                if (failure != null) {
+                    firstFailure.compareAndSet(null, failure);
+                }
+                if (remaining.decrementAndGet() == 0) { // the decrement publishes the first failure
+                    Throwable first = firstFailure.get();
+                    if (first == null) {
+                        result.complete(null);
+                    } else {
+                        result.completeExceptionally(first);
+                    }
+                }
+            }
+            dispatch();
+        }
+    }
+
+    public static class Node<T> {
+
+        private final TaskGraph graph;
+        private final int index;
+        private final String name;
+        private final long cost;
+        private final List<Node<?>> dependencies;
+        private final List<Node<?>> successors = new ArrayList<>();
+        private final Function<List<Object>, ? extends T> task;
+        private final CompletableFuture<T> future = new CompletableFuture<>();
+        private final AtomicInteger pending = new AtomicInteger();
+        private long priority;
+
+        private Node(TaskGraph graph, int index, String name, long cost, List<Node<?>> dependencies,
+                     Function<List<Object>, ? extends T> task) {
+            this.graph = graph;
+            this.index = index;
+            this.name = name;
+            this.cost = cost;
+            this.dependencies = dependencies;
+            this.task = task;
+        }
+
+        public String name() {
+            return name;
+        }
+
+        public CompletableFuture<T> future() {
+            return future;
+        }
+
+        // the estimated cost of the longest path from this node to the end of the graph
+        public long priority() {
+            return priority;
+        }
+
+        private void run() {
+            try {
+                List<Object> values = new ArrayList<>(dependencies.size());
+                for (Node<?> dependency : dependencies) {
+                    values.add(dependency.future.join()); // already completed
+                }
+                future.complete(task.apply(values));
+            } catch (Throwable t) {
+                future.completeExceptionally(t);
+            }
+        }
+
+        private Throwable failedDependency() {
+            for (Node<?> dependency : dependencies) {
+                Throwable failure = dependency.failure();
+                if (failure != null) {
+                    return failure;
+                }
+            }
+            return null;
+        }
+
+        private Throwable failure() {
+            if (!future.isCompletedExceptionally()) {
+                return null;
+            }
+            try {
+                future.join();
+                return null;
+            } catch (CompletionException e) {
+                return e.getCause();
+            } catch (Throwable t) {
+                return t;
+            }
+        }
+
+        @Override
+        public String toString() {
+            return name;
+        }
+    }
+}
@@ -0,0 +1,283 @@
+package demo.completable_future.common;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+// A hashed timer wheel, an alternative to the single Delayer thread with a ScheduledThreadPoolExecutor heap
+// used by CompletableFuture.orTimeout and completeOnTimeout.
+// Scheduling and cancellation are O(1): new and cancelled timeouts are queued by the callers,
+// and the wheel thread moves them into (or out of) the buckets once per tick.
+// Timeouts expire with the precision of one tick.
+// The timeouts still pending when the wheel is closed are cancelled and their close actions are run, so the futures
+// of orTimeout and completeOnTimeout complete exceptionally instead of waiting forever.
+public class TimerWheel implements AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(TimerWheel.class);
+
+    private final long tickNanos;
+    private final Bucket[] buckets;
+    private final int mask;
+    private final long startNanos;
+    private final Queue<Timeout> scheduled = new ConcurrentLinkedQueue<>();
+    private final Queue<Timeout> cancelled = new ConcurrentLinkedQueue<>();
+    private final Thread thread;
+    private volatile boolean closed;
+    private long tick; // accessed by the wheel thread only
+
+    private TimerWheel(long tickDuration, TimeUnit unit, int ticksPerWheel) {
+        if (tickDuration <= 0) {
+            throw new IllegalArgumentException("tickDuration must be positive: " + tickDuration);
+        }
+        if (ticksPerWheel <= 0 || Integer.bitCount(ticksPerWheel) != 1) {
+            throw new IllegalArgumentException("ticksPerWheel must be a positive power of 2: " + ticksPerWheel);
+        }
+        this.tickNanos = unit.toNanos(tickDuration);
+        this.buckets = new Bucket[ticksPerWheel];
+        for (int i = 0; i < ticksPerWheel; i++) {
+            buckets[i] = new Bucket();
+        }
+        this.mask = ticksPerWheel - 1;
+        this.startNanos = System.nanoTime();
+        this.thread = new Thread(this::run, "timer-wheel");
+        this.thread.setDaemon(true);
+    }
+
+    // the wheel thread is started once the wheel is constructed
+    public static TimerWheel start(long tickDuration, TimeUnit unit, int ticksPerWheel) {
+        TimerWheel wheel = new TimerWheel(tickDuration, unit, ticksPerWheel);
+        wheel.thread.start();
+        return wheel;
+    }
+
+    public static <T> CompletableFuture<T> orTimeout(CompletableFuture<T> future, long timeout, TimeUnit unit, TimerWheel wheel) {
+        if (!future.isDone()) {
+            Timeout t = wheel.schedule(() -> future.completeExceptionally(new TimeoutException()),
+                    () -> future.completeExceptionally(closedException()), timeout, unit);
+            future.whenComplete((value, e) -> t.cancel());
+        }
+        return future;
+    }
+
+    public static <T> CompletableFuture<T> completeOnTimeout(CompletableFuture<T> future, T value, long timeout, TimeUnit unit, TimerWheel wheel) {
+        if (!future.isDone()) {
+            Timeout t = wheel.schedule(() -> future.complete(value),
+                    () -> future.completeExceptionally(closedException()), timeout, unit);
+            future.whenComplete((v, e) -> t.cancel());
+        }
+        return future;
+    }
+
+    // the task is run by the wheel thread, so it should be short
+    public Timeout schedule(Runnable task, long delay, TimeUnit unit) {
+        return schedule(task, () -> {}, delay, unit);
+    }
+
+    // onClose is run instead of the task if the wheel is closed before the timeout expires
+    public Timeout schedule(Runnable task, Runnable onClose, long delay, TimeUnit unit) {
+        if (closed) {
+            throw closedException();
+        }
+        Timeout timeout = new Timeout(task, onClose, System.nanoTime() - startNanos + unit.toNanos(delay));
+        scheduled.add(timeout);
+        if (closed && scheduled.remove(timeout)) { // closed concurrently, after the wheel thread drained the queue
+            timeout.close();
+        }
+        return timeout;
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        LockSupport.unpark(thread);
+    }
+
+    private static IllegalStateException closedException() {
+        return new IllegalStateException("timer wheel is closed");
+    }
+
+    private void run() {
+        while (!closed) {
+            if (!waitForNextTick()) {
+                break;
+            }
+            removeCancelled();
+            transferScheduled();
+            buckets[(int) (tick & mask)].expire();
+            tick++;
+        }
+        Timeout timeout;
+        while ((timeout = scheduled.poll()) != null) {
+            timeout.close();
+        }
+        for (Bucket bucket : buckets) {
+            bucket.close();
+        }
+    }
+
+    private boolean waitForNextTick() {
+        long deadline = tickNanos * (tick + 1);
+        for (;;) {
+            long now = System.nanoTime() - startNanos;
+            if (now >= deadline) {
+                return true;
+            }
+            LockSupport.parkNanos(this, deadline - now);
+            if (closed) {
+                return false;
+            }
+        }
+    }
+
+    private void removeCancelled() {
+        Timeout timeout;
+        while ((timeout = cancelled.poll()) != null) {
+            if (timeout.bucket != null) {
+                timeout.bucket.remove(timeout);
+            }
+        }
+    }
+
+    private void transferScheduled() {
+        Timeout timeout;
+        while ((timeout = scheduled.poll()) != null) {
+            if (timeout.state.get() == Timeout.CANCELLED) {
+                continue;
+            }
+            long ticks = timeout.deadlineNanos / tickNanos;
+            timeout.remainingRounds = (ticks - tick) / buckets.length;
+            buckets[(int) (Math.max(ticks, tick) & mask)].add(timeout);
+        }
+    }
+
+    public class Timeout {
+
+        private static final int PENDING = 0;
+        private static final int CANCELLED = 1;
+        private static final int EXPIRED = 2;
+
+        private final Runnable task;
+        private final Runnable onClose;
+        private final long deadlineNanos;
+        private final AtomicInteger state = new AtomicInteger(PENDING);
+
+        // accessed by the wheel thread only
+        private long remainingRounds;
+        private Bucket bucket;
+        private Timeout prev;
+        private Timeout next;
+
+        private Timeout(Runnable task, Runnable onClose, long deadlineNanos) {
+            this.task = task;
+            this.onClose = onClose;
+            this.deadlineNanos = deadlineNanos;
+        }
+
+        public boolean cancel() {
+            if (!state.compareAndSet(PENDING, CANCELLED)) {
+                return false;
+            }
+            cancelled.add(this);
+            return true;
+        }
+
+        public boolean isCancelled() {
+            return state.get() == CANCELLED;
+        }
+
+        public boolean isExpired() {
+            return state.get() == EXPIRED;
+        }
+
+        private void expire() {
+            if (state.compareAndSet(PENDING, EXPIRED)) {
+                try {
+                    task.run();
+                } catch (Throwable t) {
+                    logger.warn("timeout task failed", t);
+                }
+            }
+        }
+
+        // cancels the timeout, and runs the close action if it was pending
+        private void close() {
+            if (state.compareAndSet(PENDING, CANCELLED)) {
+                try {
+                    onClose.run();
+                } catch (Throwable t) {
+                    logger.warn("timeout close action failed", t);
+                }
+            }
+        }
+    }
+
+    // a doubly-linked list of timeouts, accessed by the wheel thread only
+    private static class Bucket {
+
+        private Timeout head;
+        private Timeout tail;
+
+        void add(Timeout timeout) {
+            timeout.bucket = this;
+            if (head == null) {
+                head = tail = timeout;
+            } else {
+                tail.next = timeout;
+                timeout.prev = tail;
+                tail = timeout;
+            }
+        }
+
+        void expire() {
+            Timeout timeout = head;
+            while (timeout != null) {
+                Timeout next = timeout.next;
+                if (timeout.remainingRounds <= 0) { // the deadline is within the current tick
+                    remove(timeout);
+                    timeout.expire();
+                } else if (timeout.isCancelled()) {
+                    remove(timeout);
+                } else {
+                    timeout.remainingRounds--;
+                }
+                timeout = next;
+            }
+        }
+
+        void close() {
+            Timeout timeout = head;
+            while (timeout != null) {
+                Timeout next = timeout.next;
+                remove(timeout);
+                timeout.close();
+                timeout = next;
+            }
+        }
+
+        void remove(Timeout timeout) {
+            if (timeout.bucket != this) {
+                return;
+            }
+            if (timeout.prev != null) {
+                timeout.prev.next = timeout.next;
+            } else {
+                head = timeout.next;
+            }
+            if (timeout.next != null) {
+                timeout.next.prev = timeout.prev;
+            } else {
+                tail = timeout.prev;
+            }
+            timeout.prev = null;
+            timeout.next = null;
+            timeout.bucket = null;
+        }
+    }
+}
@@ -10,8 +10,8 @@ public class MethodsToPipelineComputations extends Demo {
     // area = π * r^2
     @Test
     public void test() {
-        CompletableFuture<Double> pi = CompletableFuture.supplyAsync(() -> Math.PI);
-        CompletableFuture<Integer> radius = CompletableFuture.supplyAsync(() -> 1);
+        CompletableFuture<Double> pi = supplyAsync(() -> Math.PI);
+        CompletableFuture<Integer> radius = supplyAsync(() -> 1);
 
         CompletableFuture<Void> area = radius
                 .thenApply(r -> r * r)
@@ -0,0 +1,66 @@
+package demo.completable_future.part0;
+
+import demo.completable_future.common.Demo;
+import demo.completable_future.common.Pipeline;
+import org.junit.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class MethodsToPipelineComputations_with_fusion extends Demo {
+
+    // area = π * r^2
+    @Test
+    public void test() {
+        CompletableFuture<Double> pi = supplyAsync(() -> Math.PI);
+        CompletableFuture<Integer> radius = supplyAsync(() -> 1);
+
+        CompletableFuture<Void> area = Pipeline.from(radius)
+                .thenApply(r -> r * r)
+                .thenCombine(pi, (multiplier1, multiplier2) -> multiplier1 * multiplier2) // fused with the previous stage
+                .thenAccept(a -> logger.info("area: {}", a))
+                .thenRun(() -> logger.info("operation completed")) // fused with the previous stage
+                .toCompletableFuture();
+
+        area.join();
+    }
+
+    @Test
+    public void testFusedStageFailure() {
+        AtomicBoolean skipped = new AtomicBoolean(true);
+
+        CompletableFuture<Integer> future = Pipeline.from(supplyAsync(() -> 0))
+                .thenApply(i -> 1 / i) // executed and failed
+                .thenApply(i -> {
+                    skipped.set(false);
+                    return i + 1;
+                })
+                .toCompletableFuture()
+                .exceptionally(t -> -1);
+
+        assertEquals(-1, future.join().intValue());
+        assertTrue(skipped.get());
+    }
+
+    @Test
+    public void testAsyncBoundary() {
+        AtomicBoolean sameThread = new AtomicBoolean();
+
+        CompletableFuture<String> future = Pipeline.from(supplyAsync(() -> "value"))
+                .thenApply(String::toUpperCase)
+                .thenApplyAsync(s -> s + " " + Thread.currentThread().getName(), executor())
+                .thenApply(s -> {
+                    sameThread.set(s.endsWith(Thread.currentThread().getName()));
+                    return s.split(" ")[0];
+                })
+                .toCompletableFuture();
+
+        assertEquals("VALUE", future.join());
+        assertFalse(future.isCompletedExceptionally());
+        assertTrue(sameThread.get());
+    }
+}
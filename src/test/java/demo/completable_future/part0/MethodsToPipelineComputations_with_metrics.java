@@ -0,0 +1,55 @@
+package demo.completable_future.part0;
+
+import demo.completable_future.common.Demo;
+import demo.completable_future.common.ExecutorMode;
+import demo.completable_future.common.StageMetrics;
+import org.junit.Test;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+import static org.junit.Assert.assertEquals;
+
+public class MethodsToPipelineComputations_with_metrics extends Demo {
+
+    // area = π * r^2
+    @Test
+    public void test() {
+        StageMetrics metrics = new StageMetrics();
+
+        for (int i = 0; i < 100; i++) {
+            CompletableFuture<Double> pi = supplyAsync(() -> Math.PI);
+            CompletableFuture<Integer> radius = supplyAsync(() -> 1);
+
+            CompletableFuture<Integer> square = metrics.thenApplyAsync("thenApply", radius, r -> r * r, executor());
+            CompletableFuture<Double> area = metrics.thenCombine("thenCombine", square, pi,
+                    (multiplier1, multiplier2) -> multiplier1 * multiplier2);
+            CompletableFuture<Double> rounded = metrics.thenCompose("thenCompose", area,
+                    a -> supplyAsync(() -> (double) Math.round(a * 100) / 100));
+            CompletableFuture<Double> logged = metrics.whenComplete("whenComplete", rounded,
+                    (a, t) -> logger.debug("area: {}", a));
+
+            assertEquals(3.14, logged.join(), 0);
+        }
+
+        assertEquals(100, metrics.stage("thenApply").execution().getTotalCount());
+        assertEquals(0, metrics.stage("thenApply").execution().getTotalCount()); // the previous call has reset the interval
+        assertEquals(100, (long) metrics.stage("whenComplete").threads().values().stream().reduce(0L, Long::sum));
+
+        logger.info("stage metrics:\n{}", metrics.report());
+    }
+
+    @Test
+    public void testVirtualThreadsAreCountedTogether() {
+        StageMetrics metrics = new StageMetrics();
+        Executor virtual = ExecutorMode.VIRTUAL.newExecutor(0);
+
+        for (int i = 0; i < 100; i++) {
+            metrics.thenApplyAsync("thenApply", CompletableFuture.completedFuture(i), value -> value + 1, virtual).join();
+        }
+
+        assertEquals(Map.of("virtual", 100L), metrics.stage("thenApply").threads());
+        ExecutorMode.shutdown(virtual);
+    }
+}
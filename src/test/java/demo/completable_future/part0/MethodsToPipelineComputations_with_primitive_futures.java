@@ -0,0 +1,128 @@
+package demo.completable_future.part0;
+
+import demo.completable_future.common.Demo;
+import demo.completable_future.common.DoubleFuture;
+import demo.completable_future.common.ExecutorMode;
+import demo.completable_future.common.IntFuture;
+import demo.completable_future.common.LongFuture;
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class MethodsToPipelineComputations_with_primitive_futures extends Demo {
+
+    private final Executor executor = ExecutorMode.FIXED.newExecutor(2);
+
+    @After
+    public void shutdown() {
+        ExecutorMode.shutdown(executor);
+    }
+
+    // area = π * r^2, without boxing the intermediate values
+    @Test
+    public void test() {
+        DoubleFuture pi = DoubleFuture.supplyAsync(() -> Math.PI, executor);
+        IntFuture radius = IntFuture.supplyAsync(() -> 1, executor);
+
+        CompletableFuture<Void> area = radius
+                .thenApply(r -> r * r)
+                .thenApplyToDouble(r -> r)
+                .thenCombine(pi, (multiplier1, multiplier2) -> multiplier1 * multiplier2)
+                .thenAccept(a -> logger.info("area: {}", a))
+                .thenRun(() -> logger.info("operation completed"));
+
+        area.join();
+    }
+
+    @Test
+    public void testPipeline() {
+        DoubleFuture pi = new DoubleFuture();
+        IntFuture radius = new IntFuture();
+
+        DoubleFuture area = radius
+                .thenApply(r -> r * r)
+                .thenApplyToDouble(r -> r)
+                .thenCombine(pi, (multiplier1, multiplier2) -> multiplier1 * multiplier2);
+        assertFalse(area.isDone());
+
+        radius.complete(2);
+        pi.complete(Math.PI);
+        assertEquals(4 * Math.PI, area.join(), 0);
+    }
+
+    @Test
+    public void testFailurePropagation() {
+        IntFuture source = new IntFuture();
+
+        IntFuture future = source
+                .thenApply(i -> 1 / i)
+                .thenApplyToLong(i -> i * 2L)
+                .thenApplyToInt(i -> (int) i);
+        IntFuture recovered = future.exceptionally(t -> -1);
+
+        source.complete(0);
+        assertTrue(future.isCompletedExceptionally());
+        try {
+            future.join();
+            fail();
+        } catch (CompletionException e) {
+            assertTrue(e.getCause() instanceof ArithmeticException);
+        }
+        assertEquals(-1, recovered.join());
+    }
+
+    @Test
+    public void testInteropWithCompletionStage() throws InterruptedException, ExecutionException {
+        LongFuture future = LongFuture.of(CompletableFuture.supplyAsync(() -> 21L, executor))
+                .thenApplyAsync(l -> l * 2, executor);
+
+        CompletableFuture<Long> boxed = future.toCompletableFuture();
+        assertEquals(42L, (long) boxed.get());
+
+        IntFuture failed = IntFuture.of(CompletableFuture.<Integer>failedFuture(new RuntimeException("exception"))
+                .thenApply(i -> i + 1));
+        try {
+            failed.join();
+            fail();
+        } catch (CompletionException e) {
+            assertEquals("exception", e.getCause().getMessage());
+        }
+    }
+
+    @Test
+    public void testLongChain() {
+        IntFuture source = new IntFuture();
+
+        IntFuture future = source;
+        for (int i = 0; i < 100_000; i++) {
+            future = future.thenApply(value -> value + 1);
+        }
+
+        source.complete(0); // the dependents are completed iteratively
+        assertEquals(100_000, future.join());
+    }
+
+    @Test
+    public void testCompleteAndJoinInCallback() {
+        IntFuture source = new IntFuture();
+        IntFuture other = new IntFuture();
+        IntFuture otherDependent = other.thenApply(i -> i + 1);
+
+        IntFuture future = source.thenApply(i -> {
+            other.complete(i); // runs the dependents of other before it returns
+            return otherDependent.join();
+        });
+
+        source.complete(1);
+        assertEquals(2, future.join());
+    }
+}
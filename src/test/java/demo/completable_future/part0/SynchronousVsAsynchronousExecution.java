@@ -59,8 +59,8 @@ public class SynchronousVsAsynchronousExecution extends Demo {
 
     @Test
     public void testAsynchronousWithCompletableFuture() throws InterruptedException {
-        CompletableFuture<Integer> priceInEur = CompletableFuture.supplyAsync(this::getPriceInEur);
-        CompletableFuture<Integer> exchangeRateEurToUsd = CompletableFuture.supplyAsync(this::getExchangeRateEurToUsd);
+        CompletableFuture<Integer> priceInEur = supplyAsync(this::getPriceInEur);
+        CompletableFuture<Integer> exchangeRateEurToUsd = supplyAsync(this::getExchangeRateEurToUsd);
 
         CompletableFuture<Integer> netAmountInUsd = priceInEur
                 .thenCombine(exchangeRateEurToUsd, (price, exchangeRate) -> price * exchangeRate);
@@ -68,7 +68,7 @@ public class SynchronousVsAsynchronousExecution extends Demo {
         logger.info("this task started");
 
         netAmountInUsd
-                .thenCompose(amount -> CompletableFuture.supplyAsync(() -> amount * (1 + getTax(amount))))
+                .thenCompose(amount -> supplyAsync(() -> amount * (1 + getTax(amount))))
                 .whenComplete((grossAmountInUsd, throwable) -> {
                     if (throwable == null) {
                         logger.info("this task finished: {}", grossAmountInUsd);
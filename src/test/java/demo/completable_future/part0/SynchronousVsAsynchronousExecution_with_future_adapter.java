@@ -0,0 +1,151 @@
+package demo.completable_future.part0;
+
+import demo.completable_future.common.CompletingExecutorService;
+import demo.completable_future.common.Demo;
+import demo.completable_future.common.FutureAdapter;
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class SynchronousVsAsynchronousExecution_with_future_adapter extends Demo {
+
+    private final ExecutorService executorService = Executors.newCachedThreadPool();
+    private final FutureAdapter futureAdapter = FutureAdapter.start(100, 10_000, TimeUnit.MICROSECONDS, executorService);
+
+    @After
+    public void tearDown() {
+        futureAdapter.close();
+        executorService.shutdownNow();
+    }
+
+    @Test
+    public void testAsynchronousWithFutureAdapter() throws InterruptedException, ExecutionException {
+        logger.info("this task started");
+
+        Future<Integer> priceInEur = executorService.submit(this::getPriceInEur); // legacy Futures
+        Future<Integer> exchangeRateEurToUsd = executorService.submit(this::getExchangeRateEurToUsd);
+
+        CompletableFuture<Float> grossAmountInUsd = futureAdapter.adapt(priceInEur)
+                .thenCombine(futureAdapter.adapt(exchangeRateEurToUsd), (price, exchangeRate) -> price * exchangeRate)
+                .thenCompose(amount -> futureAdapter.adapt(executorService.submit(() -> amount * (1 + getTax(amount)))));
+
+        logger.info("another task started"); // no polling loop
+
+        assertEquals(12, grossAmountInUsd.get(), 0);
+        logger.info("this task finished: {}", grossAmountInUsd.get());
+    }
+
+    @Test
+    public void testManyFuturesWithOnePoller() throws InterruptedException, ExecutionException {
+        ExecutorService pool = Executors.newFixedThreadPool(4);
+        List<CompletableFuture<Integer>> futures = new ArrayList<>();
+
+        long start = System.nanoTime();
+        for (int i = 0; i < 10_000; i++) {
+            int value = i;
+            futures.add(futureAdapter.adapt(pool.submit(() -> value)));
+        }
+        CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[0])).get();
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        pool.shutdown();
+
+        logger.info("10000 futures adapted in {} ms", elapsedMillis);
+        assertEquals(9999, (int) futures.get(9999).get());
+    }
+
+    @Test
+    public void testFailureAndCancellation() throws InterruptedException {
+        CompletableFuture<String> failed = futureAdapter.adapt(executorService.submit(() -> {
+            throw new IllegalStateException("exception");
+        }));
+        try {
+            failed.get();
+            fail();
+        } catch (ExecutionException e) {
+            assertTrue(e.getCause() instanceof IllegalStateException);
+        }
+
+        Future<String> legacy = executorService.submit(() -> sleepAndGet(10, "value"));
+        futureAdapter.adapt(legacy).cancel(true);
+
+        Thread.sleep(100); // until the next polling pass
+        assertTrue(legacy.isCancelled());
+    }
+
+    @Test
+    public void testCompletingExecutorService() throws InterruptedException, ExecutionException {
+        ExecutorService completingService = new CompletingExecutorService(executorService);
+
+        Future<String> legacy = completingService.submit(() -> sleepAndGet(1, "value"));
+        CompletableFuture<String> future = futureAdapter.adapt(legacy); // completed by the task, not by the poller
+
+        assertEquals("value", future.get());
+        assertEquals("value", legacy.get());
+
+        CountDownLatch interrupted = new CountDownLatch(1);
+        Future<String> running = completingService.submit(() -> {
+            try {
+                return sleepAndGet(10, "value");
+            } catch (RuntimeException e) {
+                interrupted.countDown();
+                throw e;
+            }
+        });
+        Thread.sleep(100);
+        assertTrue(futureAdapter.adapt(running).cancel(true));
+
+        assertTrue(running.isCancelled());
+        assertTrue(interrupted.await(1, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void testDependentsDontRunOnPoller() throws InterruptedException, ExecutionException {
+        CountDownLatch release = new CountDownLatch(1);
+        Future<String> legacy = executorService.submit(() -> {
+            release.await();
+            return "value";
+        });
+
+        CompletableFuture<String> thread = futureAdapter.adapt(legacy).thenApply(value -> Thread.currentThread().getName());
+        release.countDown();
+
+        assertNotEquals("future-poller", thread.get());
+    }
+
+    @Test
+    public void testAdaptAfterClose() {
+        futureAdapter.close();
+        try {
+            futureAdapter.adapt(executorService.submit(() -> sleepAndGet(1, "value")));
+            fail();
+        } catch (IllegalStateException e) {
+            assertEquals("future adapter is closed", e.getMessage());
+        }
+    }
+
+    private int getPriceInEur() {
+        return sleepAndGet(2);
+    }
+
+    private int getExchangeRateEurToUsd() {
+        return sleepAndGet(4);
+    }
+
+    private float getTax(int amount) {
+        return sleepAndGet(50) / 100f;
+    }
+}
@@ -0,0 +1,133 @@
+package demo.completable_future.part0;
+
+import demo.completable_future.common.Demo;
+import demo.completable_future.common.LatencyDistribution;
+import demo.completable_future.common.LoadGenerator;
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+// The price/tax pipeline of SynchronousVsAsynchronousExecution under an open-loop load, with the latencies
+// of the services sampled from the given distributions. For sizing runs:
+// ./gradlew test --tests '*with_load_generator' -Pdemo.load.rate=500 -Pdemo.load.duration=60 -Pdemo.load.threads=64
+public class SynchronousVsAsynchronousExecution_with_load_generator extends Demo {
+
+    private static final int RATE = Integer.getInteger("demo.load.rate", 200); // requests per second
+    private static final int DURATION = Integer.getInteger("demo.load.duration", 2); // seconds
+    private static final int THREADS = Integer.getInteger("demo.load.threads", 16); // per pool
+
+    private final LatencyDistribution priceLatency = LatencyDistribution.exponential(2, TimeUnit.MILLISECONDS);
+    private final LatencyDistribution exchangeRateLatency = LatencyDistribution.exponential(4, TimeUnit.MILLISECONDS);
+    private final LatencyDistribution taxLatency = LatencyDistribution.pareto(1, 1.5, 100, TimeUnit.MILLISECONDS);
+
+    private final LoadGenerator loadGenerator = new LoadGenerator(RATE, DURATION, TimeUnit.SECONDS);
+    private final ExecutorService clients = Executors.newFixedThreadPool(THREADS);
+    private final ExecutorService services = Executors.newFixedThreadPool(THREADS);
+
+    @After
+    public void tearDown() {
+        clients.shutdownNow();
+        services.shutdownNow();
+    }
+
+    @Test
+    public void testSynchronous() {
+        LoadGenerator.Result result = loadGenerator.run(() -> CompletableFuture.supplyAsync(() -> {
+            int netAmountInUsd = getPriceInEur() * getExchangeRateEurToUsd(); // blocking
+            float tax = getTax(netAmountInUsd); // blocking
+            return netAmountInUsd * (1 + tax);
+        }, clients), 60, TimeUnit.SECONDS);
+
+        logger.info("{}", result.report("synchronous"));
+        assertEquals(result.requests(), result.completed());
+        assertEquals(0, result.failures());
+    }
+
+    @Test
+    public void testAsynchronousWithFuture() {
+        LoadGenerator.Result result = loadGenerator.run(() -> CompletableFuture.supplyAsync(() -> {
+            try {
+                Future<Integer> priceInEur = services.submit(this::getPriceInEur);
+                Future<Integer> exchangeRateEurToUsd = services.submit(this::getExchangeRateEurToUsd);
+                while (!priceInEur.isDone() || !exchangeRateEurToUsd.isDone()) { // polling
+                    Thread.sleep(1);
+                }
+                int netAmountInUsd = priceInEur.get() * exchangeRateEurToUsd.get();
+                Future<Float> tax = services.submit(() -> getTax(netAmountInUsd));
+                while (!tax.isDone()) {
+                    Thread.sleep(1);
+                }
+                return netAmountInUsd * (1 + tax.get());
+            } catch (InterruptedException | ExecutionException e) {
+                throw new RuntimeException(e);
+            }
+        }, clients), 60, TimeUnit.SECONDS);
+
+        logger.info("{}", result.report("future with polling"));
+        assertEquals(result.requests(), result.completed());
+        assertEquals(0, result.failures());
+    }
+
+    @Test
+    public void testAsynchronousWithCompletableFuture() {
+        LoadGenerator.Result result = loadGenerator.run(() -> {
+            CompletableFuture<Integer> priceInEur = CompletableFuture.supplyAsync(this::getPriceInEur, services);
+            CompletableFuture<Integer> exchangeRateEurToUsd = CompletableFuture.supplyAsync(this::getExchangeRateEurToUsd, services);
+            return priceInEur
+                    .thenCombine(exchangeRateEurToUsd, (price, exchangeRate) -> price * exchangeRate)
+                    .thenCompose(amount -> CompletableFuture.supplyAsync(() -> amount * (1 + getTax(amount)), services));
+        }, 60, TimeUnit.SECONDS);
+
+        logger.info("{}", result.report("completable future"));
+        assertEquals(result.requests(), result.completed());
+        assertEquals(0, result.failures());
+    }
+
+    @Test
+    public void testUnfinishedRequests() {
+        List<CompletableFuture<Integer>> pending = new ArrayList<>();
+        AtomicInteger count = new AtomicInteger();
+
+        LoadGenerator.Result result = new LoadGenerator(100, 100, TimeUnit.MILLISECONDS).run(() -> {
+            if (count.getAndIncrement() % 2 == 0) {
+                return CompletableFuture.completedFuture(1);
+            }
+            CompletableFuture<Integer> future = new CompletableFuture<>(); // never completed before the timeout
+            pending.add(future);
+            return future;
+        }, 100, TimeUnit.MILLISECONDS);
+        pending.forEach(future -> future.complete(1)); // too late to be recorded
+
+        logger.info("{}", result.report("unfinished"));
+        assertEquals(pending.size(), result.unfinished());
+        assertEquals(result.requests(), result.latencies().getTotalCount()); // the unfinished requests are recorded
+        assertTrue(result.latencies().getMaxValue() >= TimeUnit.MILLISECONDS.toNanos(100));
+    }
+
+    private int getPriceInEur() {
+        priceLatency.sleep();
+        return 2;
+    }
+
+    private int getExchangeRateEurToUsd() {
+        exchangeRateLatency.sleep();
+        return 4;
+    }
+
+    private float getTax(int amount) {
+        taxLatency.sleep();
+        return 50 / 100f;
+    }
+}
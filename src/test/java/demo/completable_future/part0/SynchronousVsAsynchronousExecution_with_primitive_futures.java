@@ -0,0 +1,53 @@
+package demo.completable_future.part0;
+
+import demo.completable_future.common.Demo;
+import demo.completable_future.common.DoubleFuture;
+import demo.completable_future.common.ExecutorMode;
+import demo.completable_future.common.IntFuture;
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.concurrent.Executor;
+
+import static org.junit.Assert.assertEquals;
+
+// the tax pipeline of SynchronousVsAsynchronousExecution without boxing the intermediate values,
+// the tax is a double because there are no float functional interfaces
+public class SynchronousVsAsynchronousExecution_with_primitive_futures extends Demo {
+
+    private final Executor executor = ExecutorMode.FIXED.newExecutor(2);
+
+    @After
+    public void shutdown() {
+        ExecutorMode.shutdown(executor);
+    }
+
+    @Test
+    public void testAsynchronousWithPrimitiveFutures() {
+        IntFuture priceInEur = IntFuture.supplyAsync(this::getPriceInEur, executor);
+        IntFuture exchangeRateEurToUsd = IntFuture.supplyAsync(this::getExchangeRateEurToUsd, executor);
+
+        logger.info("this task started");
+
+        DoubleFuture grossAmountInUsd = priceInEur
+                .thenCombine(exchangeRateEurToUsd, (price, exchangeRate) -> price * exchangeRate)
+                .thenApplyToDoubleAsync(amount -> amount * (1 + getTax(amount)), executor); // non-blocking
+
+        logger.info("another task started");
+
+        assertEquals(12, grossAmountInUsd.join(), 0);
+        logger.info("this task finished: {}", grossAmountInUsd.join());
+    }
+
+    private int getPriceInEur() {
+        return sleepAndGet(2);
+    }
+
+    private int getExchangeRateEurToUsd() {
+        return sleepAndGet(4);
+    }
+
+    private double getTax(int amount) {
+        return sleepAndGet(50) / 100d;
+    }
+}
@@ -0,0 +1,76 @@
+package demo.completable_future.part1.apply;
+
+import demo.completable_future.common.Demo;
+import demo.completable_future.common.Hedging;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class ApplyToEither_with_hedging extends Demo {
+
+    private static final int REQUESTS = 2000;
+
+    @Test
+    public void testHedgingCancelsLoser() throws InterruptedException, ExecutionException {
+        AtomicInteger calls = new AtomicInteger();
+        CompletableFuture<String> slow = new CompletableFuture<>();
+        Supplier<CompletableFuture<String>> request = () -> calls.incrementAndGet() == 1
+                ? slow
+                : sleepAndGetAsync(1, "backup");
+
+        Hedging hedging = new Hedging(0.95, 100, TimeUnit.MILLISECONDS, 100, executor());
+
+        assertEquals("backup", hedging.call(request).get());
+        assertEquals(2, calls.get());
+        assertTrue(slow.isCancelled());
+    }
+
+    // a simulation of replicated reads with a heavy-tailed (Pareto) latency distribution;
+    // the simulated requests are completed by the delay scheduler thread itself, because starting a thread per
+    // completion (the default executor on a single CPU) delays the bursts of completions by hundreds of milliseconds
+    @Test
+    public void testHedgingReducesTailLatency() {
+        Executor direct = Runnable::run;
+        Random random = new Random(42);
+        Supplier<CompletableFuture<String>> request = () -> {
+            long latency = Math.min(1000, (long) (5 / Math.pow(1 - random.nextDouble(), 1 / 1.5)));
+            return CompletableFuture.supplyAsync(() -> "value",
+                    CompletableFuture.delayedExecutor(latency, TimeUnit.MILLISECONDS, direct));
+        };
+
+        Hedging hedging = new Hedging(0.95, 50, TimeUnit.MILLISECONDS, 100, direct);
+
+        double p999WithoutHedging = p999(Supplier::get, request);
+        double p999WithHedging = p999(hedging::call, request);
+
+        logger.info("p99.9 without hedging: {} ms, with hedging: {} ms (hedge delay {} ms)",
+                p999WithoutHedging, p999WithHedging, hedging.delay(TimeUnit.MILLISECONDS));
+        assertTrue(p999WithHedging < p999WithoutHedging);
+    }
+
+    private static double p999(Function<Supplier<CompletableFuture<String>>, CompletableFuture<String>> caller,
+                               Supplier<CompletableFuture<String>> request) {
+        long[] latencies = new long[REQUESTS];
+        CompletableFuture<?>[] futures = new CompletableFuture<?>[REQUESTS];
+        for (int i = 0; i < REQUESTS; i++) {
+            int index = i;
+            long start = System.nanoTime();
+            futures[i] = caller.apply(request).thenRun(() -> latencies[index] = System.nanoTime() - start);
+        }
+        CompletableFuture.allOf(futures).join();
+
+        Arrays.sort(latencies);
+        return latencies[(int) (REQUESTS * 0.999)] / 1_000_000.0;
+    }
+}
@@ -0,0 +1,71 @@
+package demo.completable_future.part1.apply;
+
+import demo.completable_future.common.CallbackExecutor;
+import demo.completable_future.common.Demo;
+import org.junit.Test;
+
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class ThenApply_with_callback_executor extends Demo {
+
+    @Test
+    public void testThenApplyAsync() throws InterruptedException, ExecutionException {
+        try (CallbackExecutor callbackExecutor = new CallbackExecutor(4)) {
+            Set<String> threads = ConcurrentHashMap.newKeySet();
+
+            CompletableFuture<Integer> future = CompletableFuture.supplyAsync(() -> 0, callbackExecutor);
+            for (int i = 0; i < 100; i++) {
+                future = future.thenApplyAsync(value -> {
+                    threads.add(Thread.currentThread().getName());
+                    return value + 1;
+                }, callbackExecutor);
+            }
+
+            assertEquals(100, (int) future.get());
+            assertTrue(threads.stream().allMatch(thread -> thread.startsWith("callback-")));
+        }
+    }
+
+    @Test
+    public void testExternalSubmissions() throws InterruptedException {
+        try (CallbackExecutor callbackExecutor = new CallbackExecutor(4)) {
+            int tasks = 100_000;
+            AtomicInteger completed = new AtomicInteger();
+            CountDownLatch done = new CountDownLatch(tasks);
+
+            for (int i = 0; i < tasks; i++) {
+                callbackExecutor.execute(() -> {
+                    completed.incrementAndGet();
+                    done.countDown();
+                });
+            }
+
+            assertTrue(done.await(10, TimeUnit.SECONDS));
+            assertEquals(tasks, completed.get());
+        }
+    }
+
+    @Test
+    public void testClose() {
+        CallbackExecutor callbackExecutor = new CallbackExecutor(1);
+        callbackExecutor.close();
+
+        try {
+            callbackExecutor.execute(() -> {});
+            fail();
+        } catch (RejectedExecutionException e) {
+            assertEquals("executor is closed", e.getMessage());
+        }
+    }
+}
@@ -6,15 +6,14 @@ import org.junit.Test;
 import java.util.concurrent.CompletionStage;
 import java.util.concurrent.ExecutionException;
 
-import static java.util.concurrent.CompletableFuture.supplyAsync;
 import static org.junit.Assert.assertEquals;
 
 public class ThenCombine extends Demo {
 
     @Test
     public void testThenCombine() throws InterruptedException, ExecutionException {
-        CompletionStage<String> stage1 = supplyAsync(() -> sleepAndGet("parallel1"));
-        CompletionStage<String> stage2 = supplyAsync(() -> sleepAndGet("parallel2"));
+        CompletionStage<String> stage1 = sleepAndGetAsync("parallel1");
+        CompletionStage<String> stage2 = sleepAndGetAsync("parallel2");
 
         CompletionStage<String> stage = stage1.thenCombine(stage2,
                 (s1, s2) -> (s1 + " " + s2).toUpperCase());
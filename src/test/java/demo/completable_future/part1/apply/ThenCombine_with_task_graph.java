@@ -0,0 +1,92 @@
+package demo.completable_future.part1.apply;
+
+import demo.completable_future.common.Demo;
+import demo.completable_future.common.TaskGraph;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class ThenCombine_with_task_graph extends Demo {
+
+    @Test
+    public void testTaskGraph() throws InterruptedException, ExecutionException {
+        TaskGraph graph = new TaskGraph();
+        TaskGraph.Node<Integer> priceInEur = graph.add("price", 1, () -> sleepAndGet(1, 2));
+        TaskGraph.Node<Integer> exchangeRateEurToUsd = graph.add("exchange rate", 1, () -> sleepAndGet(1, 4));
+        TaskGraph.Node<Integer> netAmountInUsd = graph.add("net amount", 0, priceInEur, exchangeRateEurToUsd,
+                (price, exchangeRate) -> price * exchangeRate);
+        TaskGraph.Node<Float> grossAmountInUsd = graph.add("gross amount", 1, netAmountInUsd,
+                amount -> amount * (1 + sleepAndGet(1, 50) / 100f));
+
+        graph.execute(executor(), 2).get();
+
+        assertEquals(12, grossAmountInUsd.future().get(), 0);
+    }
+
+    @Test
+    public void testCriticalPathFirst() throws InterruptedException, ExecutionException {
+        List<String> started = new CopyOnWriteArrayList<>();
+        TaskGraph graph = new TaskGraph();
+
+        // short independent nodes are added first, the long chain last
+        for (int i = 1; i <= 3; i++) {
+            String name = "short" + i;
+            graph.add(name, 1, () -> started.add(name));
+        }
+        TaskGraph.Node<Boolean> chain1 = graph.add("chain1", 5, () -> started.add("chain1"));
+        TaskGraph.Node<Boolean> chain2 = graph.add("chain2", 5, chain1, value -> started.add("chain2"));
+        graph.add("chain3", 5, chain2, value -> started.add("chain3"));
+
+        ExecutorService single = Executors.newSingleThreadExecutor();
+        graph.execute(single, 1).get();
+        single.shutdown();
+
+        assertEquals(15, chain1.priority());
+        assertEquals("chain1", started.get(0)); // the head of the critical path runs first
+        assertEquals("chain2", started.get(1));
+    }
+
+    @Test
+    public void testFanIn() throws InterruptedException, ExecutionException {
+        TaskGraph graph = new TaskGraph();
+        List<TaskGraph.Node<Integer>> parts = IntStream.rangeClosed(1, 10)
+                .mapToObj(i -> graph.add("part" + i, 1, () -> i))
+                .collect(Collectors.toList());
+        TaskGraph.Node<Integer> sum = graph.add("sum", 1, parts,
+                values -> values.stream().mapToInt(value -> (Integer) value).sum());
+
+        graph.execute(executor(), 4).get();
+
+        assertEquals(55, (int) sum.future().get());
+    }
+
+    @Test
+    public void testFailure() throws InterruptedException {
+        TaskGraph graph = new TaskGraph();
+        TaskGraph.Node<Integer> failed = graph.add("failed", 1, () -> {
+            throw new IllegalStateException("exception");
+        });
+        TaskGraph.Node<Integer> succeeded = graph.add("succeeded", 1, () -> sleepAndGet(1, 1)); // completes after the failure
+        TaskGraph.Node<Integer> dependent = graph.add("dependent", 1, failed, succeeded, Integer::sum);
+
+        try {
+            graph.execute(executor(), 2).get();
+            fail();
+        } catch (ExecutionException e) {
+            assertTrue(e.getCause() instanceof IllegalStateException);
+        }
+        // the result is completed after all the nodes
+        assertEquals(1, (int) succeeded.future().getNow(null));
+        assertTrue(dependent.future().isCompletedExceptionally()); // not run
+    }
+}
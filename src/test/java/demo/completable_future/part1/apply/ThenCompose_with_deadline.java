@@ -0,0 +1,76 @@
+package demo.completable_future.part1.apply;
+
+import demo.completable_future.common.Deadline;
+import demo.completable_future.common.Demo;
+import org.junit.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class ThenCompose_with_deadline extends Demo {
+
+    @Test
+    public void testThenComposeWithinDeadline() throws InterruptedException, ExecutionException {
+        Deadline deadline = Deadline.after(3, TimeUnit.SECONDS);
+
+        CompletableFuture<String> stage1 = deadline.supplyAsync(() -> sleepAndGet("sequential1"), executor());
+        CompletableFuture<String> stage2 = deadline.thenCompose(stage1,
+                s -> deadline.supplyAsync(() -> sleepAndGet((s + " " + "sequential2").toUpperCase()), executor()));
+
+        assertEquals("SEQUENTIAL1 SEQUENTIAL2", stage2.get());
+        assertTrue(deadline.remaining(TimeUnit.MILLISECONDS) > 0);
+    }
+
+    @Test
+    public void testThenComposeAfterDeadline() throws InterruptedException {
+        Deadline deadline = Deadline.after(1500, TimeUnit.MILLISECONDS);
+        AtomicBoolean stage3Started = new AtomicBoolean();
+
+        CompletableFuture<String> stage1 = deadline.supplyAsync(() -> sleepAndGet("sequential1"), executor());
+        CompletableFuture<String> stage2 = deadline.thenCompose(stage1,
+                s -> deadline.supplyAsync(() -> sleepAndGet(s + " " + "sequential2"), executor()));
+        CompletableFuture<String> stage3 = deadline.thenCompose(stage2,
+                s -> deadline.supplyAsync(() -> {
+                    stage3Started.set(true);
+                    return sleepAndGet(s + " " + "sequential3");
+                }, executor()));
+
+        try {
+            stage3.get();
+            fail();
+        } catch (ExecutionException e) {
+            assertEquals(TimeoutException.class, e.getCause().getClass());
+        }
+        assertTrue(deadline.isExpired());
+        assertFalse(stage3Started.get());
+    }
+
+    @Test
+    public void testThenCombineAfterDeadline() throws InterruptedException {
+        Deadline deadline = Deadline.after(500, TimeUnit.MILLISECONDS);
+        AtomicBoolean combined = new AtomicBoolean();
+
+        CompletableFuture<String> stage = deadline.thenCombine(sleepAndGetAsync("parallel1"), sleepAndGetAsync("parallel2"),
+                (s1, s2) -> {
+                    combined.set(true);
+                    return s1 + " " + s2;
+                });
+
+        try {
+            stage.get();
+            fail();
+        } catch (ExecutionException e) {
+            assertEquals(TimeoutException.class, e.getCause().getClass());
+        }
+        sleep(1);
+        assertFalse(combined.get());
+    }
+}
@@ -0,0 +1,146 @@
+package demo.completable_future.part2;
+
+import demo.completable_future.common.Deadline;
+import demo.completable_future.common.Demo;
+import demo.completable_future.common.Retry;
+import demo.completable_future.common.RetryBudget;
+import org.junit.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class ExceptionallyCompose_with_retry extends Demo {
+
+    @Test
+    public void testRetrySuccess() throws InterruptedException, ExecutionException {
+        AtomicInteger calls = new AtomicInteger();
+        Retry retry = new Retry(3, 100, 1000, TimeUnit.MILLISECONDS, RetryBudget.unlimited(), executor());
+
+        long start = System.nanoTime();
+        CompletableFuture<String> future = retry.call(() -> calls.incrementAndGet() < 3
+                ? CompletableFuture.failedFuture(new RuntimeException("exception"))
+                : CompletableFuture.completedFuture("value"));
+
+        assertEquals("value", future.get());
+        assertEquals(3, calls.get());
+        // at least half of the 100 ms and 200 ms backoff delays
+        assertTrue(System.nanoTime() - start >= TimeUnit.MILLISECONDS.toNanos(150));
+    }
+
+    @Test
+    public void testRetryAttemptsExhausted() throws InterruptedException {
+        AtomicInteger calls = new AtomicInteger();
+        Retry retry = new Retry(3, 10, 100, TimeUnit.MILLISECONDS, RetryBudget.unlimited(), executor());
+
+        try {
+            retry.call(() -> CompletableFuture.failedFuture(new RuntimeException("exception" + calls.incrementAndGet()))).get();
+            fail();
+        } catch (ExecutionException e) {
+            assertEquals("exception3", e.getCause().getMessage());
+        }
+        assertEquals(3, calls.get());
+    }
+
+    @Test
+    public void testRetryDeadline() throws InterruptedException {
+        AtomicInteger calls = new AtomicInteger();
+        Retry retry = new Retry(10, 200, 1000, TimeUnit.MILLISECONDS, RetryBudget.unlimited(), executor());
+
+        try {
+            retry.call(() -> CompletableFuture.failedFuture(new RuntimeException("exception")),
+                    Deadline.after(500, TimeUnit.MILLISECONDS)).get();
+            fail();
+        } catch (ExecutionException e) {
+            assertEquals("exception", e.getCause().getMessage());
+        }
+        // the first retry starts within 100-200 ms, the second one within 200-400 ms after it, the third one not at all
+        assertTrue(calls.get() <= 3);
+    }
+
+    @Test
+    public void testRetryBudget() {
+        AtomicInteger calls = new AtomicInteger();
+        Retry retry = new Retry(3, 1, 10, TimeUnit.MILLISECONDS, new RetryBudget(10, 0), executor());
+
+        CompletableFuture<?>[] futures = new CompletableFuture<?>[100];
+        for (int i = 0; i < futures.length; i++) {
+            futures[i] = retry.call(() -> {
+                calls.incrementAndGet();
+                return CompletableFuture.failedFuture(new RuntimeException("exception"));
+            });
+        }
+        CompletableFuture.allOf(futures).exceptionally(t -> null).join();
+
+        assertEquals(100 + 10, calls.get()); // instead of 300 without the budget
+    }
+
+    @Test
+    public void testUnlimitedRetryBudget() {
+        RetryBudget budget = RetryBudget.unlimited();
+
+        for (int i = 0; i < 1_000; i++) {
+            assertTrue(budget.tryAcquire());
+        }
+        assertEquals(Double.POSITIVE_INFINITY, budget.available(), 0);
+    }
+
+    // goodput (successful requests per second) of a backend that fails at random, under a constant arrival rate
+    @Test
+    public void testGoodputWithFaultInjection() {
+        Retry retry = new Retry(3, 1, 20, TimeUnit.MILLISECONDS, new RetryBudget(100, 500), executor());
+
+        for (double failureRate : new double[]{0.1, 0.3, 0.5}) {
+            AtomicInteger backendCalls = new AtomicInteger();
+            Supplier<CompletableFuture<String>> backend = faultyBackend(failureRate, 5, backendCalls);
+
+            double withoutRetry = goodput(Supplier::get, backend);
+            backendCalls.set(0);
+            double withRetry = goodput(retry::call, backend);
+
+            logger.info("failure rate {}: goodput without retry {}/s, with retry {}/s ({} backend calls)",
+                    failureRate, withoutRetry, withRetry, backendCalls.get());
+            assertTrue(withRetry > withoutRetry);
+        }
+    }
+
+    private static Supplier<CompletableFuture<String>> faultyBackend(double failureRate, long latencyMillis, AtomicInteger calls) {
+        return () -> {
+            calls.incrementAndGet();
+            boolean fails = ThreadLocalRandom.current().nextDouble() < failureRate;
+            return CompletableFuture.supplyAsync(() -> {
+                if (fails) {
+                    throw new RuntimeException("injected fault");
+                }
+                return "value";
+            }, CompletableFuture.delayedExecutor(latencyMillis, TimeUnit.MILLISECONDS, executor()));
+        };
+    }
+
+    // 1000 requests arrive at 1 request per millisecond
+    private static double goodput(Function<Supplier<CompletableFuture<String>>, CompletableFuture<String>> caller,
+                                  Supplier<CompletableFuture<String>> backend) {
+        int requests = 1000;
+        long intervalNanos = TimeUnit.MILLISECONDS.toNanos(1);
+        AtomicInteger successes = new AtomicInteger();
+        CompletableFuture<?>[] futures = new CompletableFuture<?>[requests];
+
+        long start = System.nanoTime();
+        for (int i = 0; i < requests; i++) {
+            LockSupport.parkNanos(start + i * intervalNanos - System.nanoTime());
+            futures[i] = caller.apply(backend).thenRun(successes::incrementAndGet);
+        }
+        CompletableFuture.allOf(futures).exceptionally(t -> null).join();
+
+        return successes.get() * 1e9 / (requests * intervalNanos);
+    }
+}
@@ -0,0 +1,102 @@
+package demo.completable_future.part3;
+
+import demo.completable_future.common.Demo;
+import demo.completable_future.common.ExecutorMode;
+import demo.completable_future.common.InlineIfDoneFuture;
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class CompletedFuture_with_inline_execution extends Demo {
+
+    private final Executor executor = ExecutorMode.FIXED.newExecutor(2);
+
+    @After
+    public void shutdown() {
+        ExecutorMode.shutdown(executor);
+    }
+
+    @Test
+    public void testCompletedFutureRunsInline() throws InterruptedException, ExecutionException {
+        String caller = Thread.currentThread().getName();
+
+        CompletableFuture<String> future = InlineIfDoneFuture.completedFuture("value", executor, 16)
+                .thenApplyAsync(s -> Thread.currentThread().getName());
+
+        assertTrue(future.isDone());
+        assertEquals(caller, future.get());
+    }
+
+    @Test
+    public void testIncompleteFutureRunsOnExecutor() throws InterruptedException, ExecutionException {
+        String thread = InlineIfDoneFuture.supplyAsync(() -> sleepAndGet(1, "value"), executor, 16)
+                .thenApplyAsync(s -> Thread.currentThread().getName())
+                .get();
+
+        assertTrue(thread.startsWith("fixed-"));
+    }
+
+    @Test
+    public void testStageCreatedElsewhere() throws InterruptedException, ExecutionException {
+        String caller = Thread.currentThread().getName();
+        CompletableFuture<String> cached = CompletableFuture.completedFuture("value");
+
+        String thread = InlineIfDoneFuture.of(cached, executor, 16)
+                .thenApplyAsync(s -> Thread.currentThread().getName())
+                .get();
+
+        assertEquals(caller, thread);
+    }
+
+    @Test
+    public void testOtherSourceIncomplete() throws InterruptedException, ExecutionException {
+        CompletableFuture<Integer> other = new CompletableFuture<>();
+        Thread io = new Thread(() -> other.complete(2), "io-thread");
+
+        CompletableFuture<String> combined = InlineIfDoneFuture.completedFuture(1, executor, 16)
+                .thenCombineAsync(other, (i, j) -> Thread.currentThread().getName());
+        CompletableFuture<String> acceptedBoth = new CompletableFuture<>();
+        InlineIfDoneFuture.completedFuture(1, executor, 16)
+                .thenAcceptBothAsync(other, (i, j) -> acceptedBoth.complete(Thread.currentThread().getName()));
+        io.start();
+
+        assertTrue(combined.get().startsWith("fixed-")); // not the thread that completed the other source
+        assertTrue(acceptedBoth.get().startsWith("fixed-"));
+
+        String caller = Thread.currentThread().getName();
+        String thread = InlineIfDoneFuture.completedFuture(1, executor, 16)
+                .thenCombineAsync(other, (i, j) -> Thread.currentThread().getName())
+                .get();
+        assertEquals(caller, thread); // both sources are done
+    }
+
+    @Test
+    public void testDepthLimitOffloadsToExecutor() throws InterruptedException, ExecutionException {
+        Set<String> threads = ConcurrentHashMap.newKeySet();
+
+        // without the depth limit every level would nest on the calling thread's stack
+        int result = count(InlineIfDoneFuture.completedFuture(0, executor, 16), 100_000, threads).get();
+
+        assertEquals(100_000, result);
+        assertTrue(threads.contains(Thread.currentThread().getName()));
+        assertTrue(threads.stream().anyMatch(thread -> thread.startsWith("fixed-")));
+    }
+
+    private CompletableFuture<Integer> count(CompletableFuture<Integer> future, int n, Set<String> threads) {
+        if (n == 0) {
+            return future;
+        }
+        return future.thenComposeAsync(value -> {
+            threads.add(Thread.currentThread().getName());
+            return count(InlineIfDoneFuture.completedFuture(value + 1, executor, 16), n - 1, threads);
+        });
+    }
+}
@@ -12,7 +12,7 @@ public class SupplyAsync extends Demo {
 
     @Test
     public void testSupplyAsync() throws InterruptedException, ExecutionException {
-        CompletableFuture<String> future = CompletableFuture.supplyAsync(() -> sleepAndGet("value"));
+        CompletableFuture<String> future = supplyAsync(() -> sleepAndGet("value"));
         assertEquals("value", future.get());
     }
 }
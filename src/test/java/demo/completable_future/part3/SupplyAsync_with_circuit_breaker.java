@@ -0,0 +1,94 @@
+package demo.completable_future.part3;
+
+import demo.completable_future.common.Bulkhead;
+import demo.completable_future.common.CircuitBreaker;
+import demo.completable_future.common.Demo;
+import org.junit.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class SupplyAsync_with_circuit_breaker extends Demo {
+
+    @Test
+    public void testCircuitBreakerOpensOnFailures() throws InterruptedException, ExecutionException {
+        CircuitBreaker breaker = new CircuitBreaker(0.5, 1, 1, 100, TimeUnit.SECONDS);
+
+        for (int i = 0; i < 20; i++) {
+            int index = i;
+            CompletableFuture<String> future = breaker.supplyAsync(() -> {
+                if (index % 2 == 1) {
+                    throw new RuntimeException("exception");
+                }
+                return "value" + index;
+            }, executor());
+            future.exceptionally(t -> null).get();
+        }
+        assertEquals(CircuitBreaker.State.OPEN, breaker.state());
+
+        AtomicInteger calls = new AtomicInteger();
+        CompletableFuture<String> future = breaker.supplyAsync(() -> "value" + calls.incrementAndGet(), executor());
+
+        assertTrue(future.isCompletedExceptionally()); // at once
+        assertEquals(0, calls.get());
+        try {
+            future.get();
+            fail();
+        } catch (ExecutionException e) {
+            assertTrue(e.getCause() instanceof RejectedExecutionException);
+        }
+    }
+
+    @Test
+    public void testCircuitBreakerOpensOnSlowCalls() throws InterruptedException, ExecutionException {
+        CircuitBreaker breaker = new CircuitBreaker(1, 0.5, 10, 1000, TimeUnit.MILLISECONDS);
+
+        CompletableFuture<?>[] futures = new CompletableFuture<?>[20];
+        for (int i = 0; i < futures.length; i++) {
+            futures[i] = breaker.call(() -> sleepAndGetAsync(1, "value"));
+        }
+        CompletableFuture.allOf(futures).get();
+
+        assertEquals(CircuitBreaker.State.OPEN, breaker.state());
+    }
+
+    @Test
+    public void testCircuitBreakerCloses() throws InterruptedException, ExecutionException {
+        CircuitBreaker breaker = new CircuitBreaker(0.5, 1, 1000, 100, TimeUnit.MILLISECONDS);
+
+        for (int i = 0; i < 20; i++) {
+            breaker.call(() -> CompletableFuture.failedFuture(new RuntimeException("exception")));
+        }
+        assertEquals(CircuitBreaker.State.OPEN, breaker.state());
+
+        Thread.sleep(200);
+        for (int i = 0; i < 5; i++) {
+            assertEquals("value", breaker.call(() -> CompletableFuture.completedFuture("value")).get());
+        }
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.state());
+    }
+
+    @Test
+    public void testBulkheadRejects() throws InterruptedException, ExecutionException {
+        Bulkhead bulkhead = new Bulkhead(2);
+
+        CompletableFuture<String> future1 = bulkhead.call(() -> sleepAndGetAsync(1, "value1"));
+        CompletableFuture<String> future2 = bulkhead.call(() -> sleepAndGetAsync(1, "value2"));
+        CompletableFuture<String> future3 = bulkhead.supplyAsync(() -> "value3", executor());
+
+        assertTrue(future3.isCompletedExceptionally()); // not queued
+        assertEquals(0, bulkhead.available());
+
+        assertEquals("value1", future1.get());
+        assertEquals("value2", future2.get());
+        assertEquals(2, bulkhead.available());
+        assertEquals("value3", bulkhead.supplyAsync(() -> "value3", executor()).get());
+    }
+}
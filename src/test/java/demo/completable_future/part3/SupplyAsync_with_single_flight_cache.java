@@ -0,0 +1,162 @@
+package demo.completable_future.part3;
+
+import demo.completable_future.common.Demo;
+import demo.completable_future.common.SingleFlightCache;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class SupplyAsync_with_single_flight_cache extends Demo {
+
+    @Test
+    public void testConcurrentCallersShareComputation() throws InterruptedException, ExecutionException {
+        AtomicInteger loads = new AtomicInteger();
+        SingleFlightCache<String, Integer> cache = new SingleFlightCache<>(key -> {
+            loads.incrementAndGet();
+            return sleepAndGet(1, 100);
+        }, executor(), 100, 1, TimeUnit.MINUTES);
+
+        List<CompletableFuture<Integer>> futures = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            futures.add(cache.get("price"));
+        }
+        for (CompletableFuture<Integer> future : futures) {
+            assertEquals(100, (int) future.get());
+        }
+        assertEquals(100, (int) cache.get("price").get());
+
+        assertEquals(1, loads.get());
+        assertEquals(1, cache.misses());
+        assertEquals(100, cache.hits());
+    }
+
+    @Test
+    public void testFailureIsEvicted() throws InterruptedException, ExecutionException {
+        AtomicInteger loads = new AtomicInteger();
+        SingleFlightCache<String, Integer> cache = new SingleFlightCache<>(key -> {
+            if (loads.incrementAndGet() == 1) {
+                throw new RuntimeException("exception");
+            }
+            return 100;
+        }, executor(), 100, 1, TimeUnit.MINUTES);
+
+        try {
+            cache.get("price").get();
+            fail();
+        } catch (ExecutionException e) {
+            assertEquals("exception", e.getCause().getMessage());
+        }
+
+        assertEquals(100, (int) cache.get("price").get());
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    public void testCancelledCallerDoesNotCancelOthers() throws InterruptedException, ExecutionException {
+        SingleFlightCache<String, String> cache = new SingleFlightCache<>(key -> sleepAndGet(1, key),
+                executor(), 100, 1, TimeUnit.MINUTES);
+
+        CompletableFuture<String> future1 = cache.get("value");
+        CompletableFuture<String> future2 = cache.get("value");
+        future1.cancel(true);
+
+        assertTrue(future1.isCancelled());
+        assertEquals("value", future2.get());
+    }
+
+    @Test
+    public void testEviction() throws InterruptedException, ExecutionException {
+        AtomicInteger loads = new AtomicInteger();
+        SingleFlightCache<Integer, Integer> cache = new SingleFlightCache<>(key -> {
+            loads.incrementAndGet();
+            return key;
+        }, executor(), 2, 100, TimeUnit.MILLISECONDS);
+
+        for (int key = 1; key <= 3; key++) {
+            cache.get(key).get();
+        }
+        assertEquals(2, cache.size()); // 1 is evicted by size
+
+        cache.get(3).get();
+        assertEquals(3, loads.get());
+
+        Thread.sleep(200);
+        cache.get(3).get(); // 3 is expired
+        assertEquals(4, loads.get());
+    }
+
+    @Test
+    public void testInFlightEntryIsNotEvicted() throws InterruptedException, ExecutionException {
+        CompletableFuture<Void> gate = new CompletableFuture<>();
+        ConcurrentHashMap<Integer, AtomicInteger> loads = new ConcurrentHashMap<>();
+        SingleFlightCache<Integer, Integer> cache = new SingleFlightCache<>(key -> {
+            loads.computeIfAbsent(key, k -> new AtomicInteger()).incrementAndGet();
+            if (key == 1) {
+                gate.join();
+            }
+            return key;
+        }, executor(), 1, 1, TimeUnit.MINUTES);
+
+        CompletableFuture<Integer> future1 = cache.get(1); // in flight until the gate opens
+        assertEquals(2, (int) cache.get(2).get()); // exceeds the maximum size, but 1 is still in flight
+        CompletableFuture<Integer> future2 = cache.get(1);
+        gate.complete(null);
+
+        assertEquals(1, (int) future1.get());
+        assertEquals(1, (int) future2.get());
+        assertEquals(1, loads.get(1).get()); // the second caller shared the in-flight computation
+    }
+
+    @Test
+    public void testStress() throws InterruptedException, ExecutionException {
+        int threads = 16;
+        int requests = 10_000;
+        int keys = 50;
+
+        ConcurrentHashMap<Integer, AtomicInteger> loads = new ConcurrentHashMap<>();
+        SingleFlightCache<Integer, Integer> cache = new SingleFlightCache<>(key -> {
+            loads.computeIfAbsent(key, k -> new AtomicInteger()).incrementAndGet();
+            return key * 2;
+        }, executor(), keys, 1, TimeUnit.MINUTES);
+
+        ExecutorService callers = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        List<CompletableFuture<Void>> results = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            results.add(CompletableFuture.runAsync(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    throw new RuntimeException(e);
+                }
+                for (int i = 0; i < requests; i++) {
+                    int key = ThreadLocalRandom.current().nextInt(keys);
+                    assertEquals(key * 2, (int) cache.get(key).join());
+                }
+            }, callers));
+        }
+        start.countDown();
+        CompletableFuture.allOf(results.toArray(new CompletableFuture<?>[0])).get();
+        callers.shutdown();
+
+        logger.info("hit rate: {}", cache.hitRate());
+        assertEquals(threads * requests, cache.hits() + cache.misses());
+        assertEquals(keys, loads.size());
+        loads.values().forEach(count -> assertEquals(1, count.get())); // every key is loaded once
+        assertEquals(keys, cache.misses());
+    }
+}
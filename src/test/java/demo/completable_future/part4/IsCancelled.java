@@ -24,7 +24,7 @@ public class IsCancelled extends Demo {
 
     @Test
     public void testIsCancelledFalse() {
-        CompletableFuture<String> future = CompletableFuture.supplyAsync(() -> sleepAndGet("value"));
+        CompletableFuture<String> future = supplyAsync(() -> sleepAndGet("value"));
 
         assertFalse(future.isDone());
         assertFalse(future.isCompletedExceptionally());
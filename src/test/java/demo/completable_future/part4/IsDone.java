@@ -24,7 +24,7 @@ public class IsDone extends Demo {
 
     @Test
     public void testIsDoneFalse() {
-        CompletableFuture<String> future = CompletableFuture.supplyAsync(() -> sleepAndGet("value"));
+        CompletableFuture<String> future = supplyAsync(() -> sleepAndGet("value"));
 
         assertFalse(future.isDone());
         assertFalse(future.isCompletedExceptionally());
@@ -0,0 +1,144 @@
+package demo.completable_future.part5;
+
+import demo.completable_future.common.CancellableFuture;
+import demo.completable_future.common.Demo;
+import org.junit.Test;
+
+import java.lang.ref.WeakReference;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class Cancel_with_propagation extends Demo {
+
+    @Test
+    public void testCancelInterruptsWorker() throws InterruptedException, ExecutionException {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch interrupted = new CountDownLatch(1);
+
+        CompletableFuture<String> future = CancellableFuture.supplyAsync(interruptible(10, "value", started, interrupted), executor());
+        started.await();
+
+        assertTrue(future.cancel(true));
+
+        assertTrue(future.isCancelled());
+        assertTrue(interrupted.await(1, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void testCancelPropagatesThroughThenCompose() throws InterruptedException, ExecutionException {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch interrupted = new CountDownLatch(1);
+
+        CompletableFuture<String> source = CancellableFuture.supplyAsync(() -> "value", executor());
+        CompletableFuture<String> future = source
+                .thenApply(String::toUpperCase)
+                .thenCompose(value -> CancellableFuture.supplyAsync(interruptible(10, value, started, interrupted), executor()))
+                .thenApply(value -> value + "!");
+        started.await();
+
+        assertTrue(future.cancel(true));
+
+        assertTrue(interrupted.await(1, TimeUnit.SECONDS)); // the nested stage is cancelled
+    }
+
+    @Test
+    public void testCancelPropagatesThroughThenCombine() throws InterruptedException, ExecutionException {
+        CountDownLatch started = new CountDownLatch(2);
+        CountDownLatch interrupted = new CountDownLatch(2);
+
+        CompletableFuture<String> source1 = CancellableFuture.supplyAsync(interruptible(10, "value1", started, interrupted), executor());
+        CompletableFuture<String> source2 = CancellableFuture.supplyAsync(interruptible(10, "value2", started, interrupted), executor());
+        CompletableFuture<String> future = source1.thenCombine(source2, (value1, value2) -> value1 + value2);
+        started.await();
+
+        assertTrue(future.cancel(true));
+
+        assertTrue(source1.isCancelled());
+        assertTrue(source2.isCancelled());
+        assertTrue(interrupted.await(1, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void testCancelPropagatesThroughAllOf() throws InterruptedException, ExecutionException {
+        CompletableFuture<String> source1 = CancellableFuture.supplyAsync(() -> sleepAndGet(10, "value1"), executor());
+        CompletableFuture<String> source2 = new CompletableFuture<>();
+        CompletableFuture<String> source3 = CompletableFuture.completedFuture("value3");
+
+        CompletableFuture<Void> future = CancellableFuture.allOf(source1, source2, source3);
+
+        assertTrue(future.cancel(true));
+
+        assertTrue(source1.isCancelled());
+        assertTrue(source2.isCancelled());
+        assertTrue(source3.isDone() && !source3.isCancelled()); // already completed
+    }
+
+    @Test
+    public void testCancelPropagatesThroughThenAcceptBothAndRunAfterBoth() {
+        CompletableFuture<String> source1 = new CancellableFuture<>();
+        CompletableFuture<String> source2 = new CompletableFuture<>();
+        CompletableFuture<String> source3 = new CancellableFuture<>();
+        CompletableFuture<String> source4 = new CompletableFuture<>();
+
+        assertTrue(source1.thenAcceptBoth(source2, (value1, value2) -> {}).cancel(true));
+        assertTrue(source3.runAfterBothAsync(source4, () -> {}, executor()).cancel(true));
+
+        assertTrue(source1.isCancelled() && source2.isCancelled());
+        assertTrue(source3.isCancelled() && source4.isCancelled());
+    }
+
+    @Test
+    public void testCancelDoesNotPropagateThroughCopy() {
+        CompletableFuture<String> source = new CancellableFuture<>();
+        CompletableFuture<String> dependent = source.thenApply(String::toUpperCase);
+
+        assertTrue(source.copy().cancel(true)); // a defensive copy handed to one caller
+        assertTrue(source.whenComplete((value, t) -> {}).cancel(true));
+        assertTrue(source.exceptionally(t -> "fallback").cancel(true));
+
+        assertFalse(source.isCancelled());
+        source.complete("value");
+        assertEquals("VALUE", dependent.join());
+    }
+
+    // a completed stage doesn't keep its upstream stages reachable
+    @Test
+    public void testCompletedStageDropsUpstream() throws InterruptedException {
+        CompletableFuture<String> source = new CancellableFuture<>();
+        WeakReference<CompletableFuture<String>> reference = new WeakReference<>(source);
+        CompletableFuture<String> future = source.thenApply(String::toUpperCase).thenApply(value -> value + "!");
+        source.complete("value");
+        source = null;
+
+        for (int i = 0; i < 10 && reference.get() != null; i++) {
+            System.gc();
+            Thread.sleep(10);
+        }
+
+        assertNull(reference.get());
+        assertEquals("VALUE!", future.join());
+    }
+
+    private static <T> Supplier<T> interruptible(int seconds, T message, CountDownLatch started, CountDownLatch interrupted) {
+        return () -> {
+            started.countDown();
+            try {
+                return sleepAndGet(seconds, message);
+            } catch (RuntimeException e) {
+                if (e.getCause() instanceof InterruptedException) {
+                    logger.info("{} interrupted", message);
+                    interrupted.countDown();
+                }
+                throw e;
+            }
+        };
+    }
+}
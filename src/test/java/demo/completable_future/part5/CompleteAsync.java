@@ -18,7 +18,7 @@ public class CompleteAsync extends Demo {
 
         assertFalse(future1.isDone());
 
-        CompletableFuture<String> future2 = future1.completeAsync(() -> "value");
+        CompletableFuture<String> future2 = future1.completeAsync(() -> "value", executor());
         sleep(1);
 
         assertTrue(future2.isDone());
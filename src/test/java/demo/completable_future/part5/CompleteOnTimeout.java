@@ -13,14 +13,14 @@ public class CompleteOnTimeout extends Demo {
 
     @Test
     public void testCompleteOnTimeout1() throws InterruptedException, ExecutionException {
-        CompletableFuture<String> future = CompletableFuture.supplyAsync(() -> sleepAndGet(1, "value"))
+        CompletableFuture<String> future = supplyAsync(() -> sleepAndGet(1, "value"))
                 .completeOnTimeout("default", 2, TimeUnit.SECONDS);
         assertEquals("value", future.get());
     }
 
     @Test
     public void testCompleteOnTimeout2() throws InterruptedException, ExecutionException {
-        CompletableFuture<String> future = CompletableFuture.supplyAsync(() -> sleepAndGet(2, "value"))
+        CompletableFuture<String> future = supplyAsync(() -> sleepAndGet(2, "value"))
                 .completeOnTimeout("default", 1, TimeUnit.SECONDS);
         assertEquals("default", future.get());
     }
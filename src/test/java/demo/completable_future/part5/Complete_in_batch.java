@@ -0,0 +1,69 @@
+package demo.completable_future.part5;
+
+import demo.completable_future.common.BatchCompleter;
+import demo.completable_future.common.Demo;
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class Complete_in_batch extends Demo {
+
+    @Test
+    public void testCompleteInBatch() throws InterruptedException, ExecutionException {
+        AtomicInteger handOffs = new AtomicInteger();
+        Executor executor = task -> {
+            handOffs.incrementAndGet();
+            executor().execute(task);
+        };
+        BatchCompleter<Integer, String> completer = new BatchCompleter<>(executor);
+
+        Set<String> threads = ConcurrentHashMap.newKeySet();
+        CompletableFuture<?>[] futures = new CompletableFuture<?>[100];
+        Map<Integer, String> response = new HashMap<>();
+        for (int id = 0; id < 100; id++) {
+            futures[id] = completer.register(id).thenAccept(value -> threads.add(Thread.currentThread().getName()));
+            response.put(id, "value" + id);
+        }
+        assertEquals(100, completer.pending());
+
+        completer.completeAsync(response).get();
+
+        assertTrue(CompletableFuture.allOf(futures).isDone());
+        assertEquals(0, completer.pending());
+        assertEquals(1, handOffs.get());
+        assertEquals(1, threads.size());
+    }
+
+    @Test
+    public void testCompletePartially() throws InterruptedException, ExecutionException {
+        BatchCompleter<Integer, String> completer = new BatchCompleter<>(executor());
+
+        CompletableFuture<String> future1 = completer.register(1);
+        CompletableFuture<String> future2 = completer.register(2);
+        CompletableFuture<String> future3 = completer.register(3);
+
+        completer.completeAsync(Map.of(1, "value1", 4, "value4")).get(); // 4 is not pending
+
+        assertEquals("value1", future1.get());
+        assertFalse(future2.isDone());
+        assertEquals(2, completer.pending());
+
+        completer.completeExceptionallyAsync(List.of(2, 3), new RuntimeException("exception")).get();
+
+        assertTrue(future2.isCompletedExceptionally());
+        assertTrue(future3.isCompletedExceptionally());
+        assertEquals(0, completer.pending());
+    }
+}
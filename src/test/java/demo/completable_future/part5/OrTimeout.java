@@ -15,14 +15,14 @@ public class OrTimeout extends Demo {
 
     @Test
     public void getNow() throws InterruptedException, ExecutionException {
-        CompletableFuture<String> future = CompletableFuture.supplyAsync(() -> sleepAndGet(2, "value"))
+        CompletableFuture<String> future = supplyAsync(() -> sleepAndGet(2, "value"))
                 .orTimeout(3, TimeUnit.SECONDS);
         assertEquals("value", future.get());
     }
 
     @Test
     public void getNowValueIfAbsent() throws InterruptedException {
-        CompletableFuture<String> future = CompletableFuture.supplyAsync(() -> sleepAndGet(2, "value"))
+        CompletableFuture<String> future = supplyAsync(() -> sleepAndGet(2, "value"))
                 .orTimeout(1, TimeUnit.SECONDS);
         try {
             future.get();
@@ -0,0 +1,87 @@
+package demo.completable_future.part5;
+
+import demo.completable_future.common.Demo;
+import demo.completable_future.common.TimerWheel;
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class OrTimeout_with_timer_wheel extends Demo {
+
+    private final TimerWheel wheel = TimerWheel.start(10, TimeUnit.MILLISECONDS, 64);
+
+    @After
+    public void close() {
+        wheel.close();
+    }
+
+    @Test
+    public void testOrTimeoutSuccess() throws InterruptedException, ExecutionException {
+        CompletableFuture<String> future = TimerWheel.orTimeout(sleepAndGetAsync(1, "value"), 2, TimeUnit.SECONDS, wheel);
+        assertEquals("value", future.get());
+    }
+
+    // the timeout is longer than one revolution of the wheel (64 * 10 ms)
+    @Test
+    public void testOrTimeoutFailure() throws InterruptedException {
+        CompletableFuture<String> future = TimerWheel.orTimeout(sleepAndGetAsync(2, "value"), 1, TimeUnit.SECONDS, wheel);
+        try {
+            future.get();
+            fail();
+        } catch (ExecutionException e) {
+            assertEquals(TimeoutException.class, e.getCause().getClass());
+        }
+    }
+
+    @Test
+    public void testCompleteOnTimeout() throws InterruptedException, ExecutionException {
+        CompletableFuture<String> future1 = TimerWheel.completeOnTimeout(sleepAndGetAsync(1, "value"), "default", 2, TimeUnit.SECONDS, wheel);
+        CompletableFuture<String> future2 = TimerWheel.completeOnTimeout(sleepAndGetAsync(2, "value"), "default", 1, TimeUnit.SECONDS, wheel);
+
+        assertEquals("value", future1.get());
+        assertEquals("default", future2.get());
+    }
+
+    @Test
+    public void testCancelledTimeoutDoesNotExpire() throws InterruptedException {
+        TimerWheel.Timeout timeout = wheel.schedule(() -> fail(), 50, TimeUnit.MILLISECONDS);
+        assertTrue(timeout.cancel());
+        assertFalse(timeout.cancel());
+
+        TimeUnit.MILLISECONDS.sleep(100);
+
+        assertTrue(timeout.isCancelled());
+        assertFalse(timeout.isExpired());
+    }
+
+    @Test
+    public void testCloseCompletesPendingTimeouts() throws InterruptedException {
+        TimerWheel closing = TimerWheel.start(10, TimeUnit.MILLISECONDS, 64);
+        CompletableFuture<String> future1 = TimerWheel.orTimeout(new CompletableFuture<>(), 10, TimeUnit.SECONDS, closing);
+        CompletableFuture<String> future2 = TimerWheel.completeOnTimeout(new CompletableFuture<>(), "default", 10, TimeUnit.SECONDS, closing);
+        TimeUnit.MILLISECONDS.sleep(50); // the timeouts are moved into the buckets
+
+        closing.close();
+
+        for (CompletableFuture<String> future : List.of(future1, future2)) {
+            try {
+                future.get(1, TimeUnit.SECONDS);
+                fail();
+            } catch (ExecutionException e) {
+                assertEquals(IllegalStateException.class, e.getCause().getClass());
+            } catch (TimeoutException e) {
+                fail("the future is still waiting on the closed wheel");
+            }
+        }
+    }
+}
@@ -12,7 +12,7 @@ public class Get extends Demo {
 
     @Test
     public void testGet() throws InterruptedException, ExecutionException {
-        CompletableFuture<String> future = CompletableFuture.supplyAsync(() -> sleepAndGet(2, "value"));
+        CompletableFuture<String> future = supplyAsync(() -> sleepAndGet(2, "value"));
         assertEquals("value", future.get());
     }
 }
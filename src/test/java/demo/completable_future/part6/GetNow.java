@@ -20,7 +20,7 @@ public class GetNow extends Demo {
 
     @Test
     public void getNowValueIfAbsent() {
-        CompletableFuture<String> future = CompletableFuture.supplyAsync(() -> sleepAndGet("value"));
+        CompletableFuture<String> future = supplyAsync(() -> sleepAndGet("value"));
         assertEquals("default", future.getNow("default"));
         assertFalse(future.isDone());
     }
@@ -16,13 +16,13 @@ public class Get_with_timeout extends Demo {
 
     @Test
     public void testGetWithTimeoutSuccess() throws InterruptedException, ExecutionException, TimeoutException {
-        CompletableFuture<String> future = CompletableFuture.supplyAsync(() -> sleepAndGet(2, "value"));
+        CompletableFuture<String> future = supplyAsync(() -> sleepAndGet(2, "value"));
         assertEquals("value", future.get(3, TimeUnit.SECONDS));
     }
 
     @Test
     public void testGetWithTimeoutFailure() throws InterruptedException, ExecutionException {
-        CompletableFuture<String> future = CompletableFuture.supplyAsync(() -> sleepAndGet(2, "value"));
+        CompletableFuture<String> future = supplyAsync(() -> sleepAndGet(2, "value"));
         try {
             future.get(1, TimeUnit.SECONDS);
             fail();
@@ -11,7 +11,7 @@ public class Join extends Demo {
 
     @Test
     public void testJoin() {
-        CompletableFuture<String> future = CompletableFuture.supplyAsync(() -> sleepAndGet(2, "value"));
+        CompletableFuture<String> future = supplyAsync(() -> sleepAndGet(2, "value"));
         assertEquals("value", future.join()); // throws no checked exceptions
     }
 }
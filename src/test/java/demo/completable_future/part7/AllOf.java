@@ -8,7 +8,6 @@ import java.util.concurrent.ExecutionException;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
-import static java.util.concurrent.CompletableFuture.supplyAsync;
 import static org.junit.Assert.assertEquals;
 
 public class AllOf extends Demo {
@@ -16,9 +15,9 @@ public class AllOf extends Demo {
     @Test
     public void testAllOf() throws InterruptedException, ExecutionException {
         CompletableFuture<?>[] futures = new CompletableFuture<?>[]{
-                supplyAsync(() -> sleepAndGet(1, "parallel1")),
-                supplyAsync(() -> sleepAndGet(2, "parallel2")),
-                supplyAsync(() -> sleepAndGet(3, "parallel3"))
+                sleepAndGetAsync(1, "parallel1"),
+                sleepAndGetAsync(2, "parallel2"),
+                sleepAndGetAsync(3, "parallel3")
         };
 
         CompletableFuture<Void> future = CompletableFuture.allOf(futures);
@@ -34,8 +33,8 @@ public class AllOf extends Demo {
 
     @Test
     public void testRunAfterBoth() throws InterruptedException, ExecutionException {
-        CompletableFuture<String> future1 = supplyAsync(() -> sleepAndGet(1, "parallel1"));
-        CompletableFuture<String> future2 = supplyAsync(() -> sleepAndGet(2, "parallel2"));
+        CompletableFuture<String> future1 = sleepAndGetAsync(1, "parallel1");
+        CompletableFuture<String> future2 = sleepAndGetAsync(2, "parallel2");
 
         CompletableFuture<Void> future = future1
                 .runAfterBoth(future2, () -> {});
@@ -0,0 +1,51 @@
+package demo.completable_future.part7;
+
+import demo.completable_future.common.CompletionOrder;
+import demo.completable_future.common.Demo;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class AllOf_in_completion_order extends Demo {
+
+    @Test
+    public void testStreamInCompletionOrder() {
+        List<CompletableFuture<String>> futures = List.of(
+                sleepAndGetAsync(3, "parallel3"),
+                sleepAndGetAsync(1, "parallel1"),
+                sleepAndGetAsync(2, "parallel2")
+        );
+
+        String result = CompletionOrder.stream(futures)
+                .map(CompletableFuture::join)
+                .peek(value -> logger.info("processed: {}", value))
+                .collect(Collectors.joining(" "));
+
+        assertEquals("parallel1 parallel2 parallel3", result);
+    }
+
+    @Test
+    public void testTakeInCompletionOrder() throws InterruptedException, ExecutionException {
+        CompletableFuture<String> future1 = sleepAndGetAsync(1, "parallel1");
+        CompletableFuture<String> future2 = CompletableFuture.failedFuture(new RuntimeException("exception"));
+
+        CompletionOrder<String> completionOrder = new CompletionOrder<>(List.of(future1, future2));
+        assertEquals(2, completionOrder.remaining());
+
+        CompletableFuture<String> first = completionOrder.take();
+        assertTrue(first.isCompletedExceptionally());
+        assertNull(completionOrder.poll());
+
+        CompletableFuture<String> second = completionOrder.take();
+        assertEquals("parallel1", second.get());
+        assertFalse(completionOrder.hasNext());
+    }
+}
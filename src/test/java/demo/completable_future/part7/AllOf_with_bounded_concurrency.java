@@ -0,0 +1,71 @@
+package demo.completable_future.part7;
+
+import demo.completable_future.common.BoundedAllOf;
+import demo.completable_future.common.Demo;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class AllOf_with_bounded_concurrency extends Demo {
+
+    @Test
+    public void testAllOfWithBoundedConcurrency() throws InterruptedException, ExecutionException {
+        AtomicInteger inFlight = new AtomicInteger();
+        AtomicInteger maxInFlight = new AtomicInteger();
+
+        Stream<Supplier<CompletionStage<String>>> tasks = IntStream.rangeClosed(1, 6)
+                .mapToObj(i -> () -> {
+                    maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+                    return sleepAndGetAsync(1, "parallel" + i)
+                            .whenComplete((value, t) -> inFlight.decrementAndGet());
+                });
+
+        CompletableFuture<List<String>> future = BoundedAllOf.allOf(tasks, 2);
+
+        assertEquals("parallel1 parallel2 parallel3 parallel4 parallel5 parallel6", String.join(" ", future.get()));
+        assertEquals(2, maxInFlight.get());
+    }
+
+    @Test
+    public void testAllOfWithCompletedFutures() throws InterruptedException, ExecutionException {
+        Stream<Supplier<CompletionStage<Integer>>> tasks = IntStream.range(0, 100_000)
+                .mapToObj(i -> () -> CompletableFuture.completedFuture(i));
+
+        List<Integer> result = BoundedAllOf.allOf(tasks, 4).get();
+
+        assertEquals(100_000, result.size());
+        assertEquals(99_999, (int) result.get(99_999));
+    }
+
+    @Test
+    public void testAllOfWithFailure() throws InterruptedException {
+        AtomicInteger started = new AtomicInteger();
+
+        List<Supplier<CompletionStage<String>>> tasks = List.of(
+                () -> { started.incrementAndGet(); return sleepAndGetAsync(1, "parallel1"); },
+                () -> { started.incrementAndGet(); return CompletableFuture.failedFuture(new RuntimeException("exception")); },
+                () -> { started.incrementAndGet(); return sleepAndGetAsync(1, "parallel3"); }
+        );
+
+        CompletableFuture<List<String>> future = BoundedAllOf.allOf(tasks, 2);
+        try {
+            future.get();
+            fail();
+        } catch (ExecutionException e) {
+            assertEquals("exception", e.getCause().getMessage());
+        }
+        assertTrue(future.isCompletedExceptionally());
+        assertEquals(2, started.get());
+    }
+}
@@ -0,0 +1,201 @@
+package demo.completable_future.part7;
+
+import demo.completable_future.common.AsyncFlow;
+import demo.completable_future.common.Demo;
+import demo.completable_future.common.ExecutorMode;
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Flow;
+import java.util.concurrent.SubmissionPublisher;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class AllOf_with_publisher extends Demo {
+
+    private final Executor executor = ExecutorMode.FIXED.newExecutor(8);
+
+    @After
+    public void shutdown() {
+        ExecutorMode.shutdown(executor);
+    }
+
+    @Test
+    public void testSupplyAsyncPublisher() throws InterruptedException, ExecutionException {
+        AtomicInteger inFlight = new AtomicInteger();
+        AtomicInteger maxInFlight = new AtomicInteger();
+
+        List<Supplier<Integer>> suppliers = IntStream.range(0, 20)
+                .mapToObj(i -> (Supplier<Integer>) () -> {
+                    maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+                    LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(10));
+                    inFlight.decrementAndGet();
+                    return i;
+                })
+                .collect(Collectors.toList());
+
+        Collector<Integer> collector = new Collector<>(Long.MAX_VALUE);
+        AsyncFlow.supplyAsync(suppliers, executor, 4).subscribe(collector);
+
+        List<Integer> result = new ArrayList<>(collector.result.get());
+        Collections.sort(result); // in completion order
+        assertEquals(IntStream.range(0, 20).boxed().collect(Collectors.toList()), result);
+        assertTrue(maxInFlight.get() <= 4);
+    }
+
+    @Test
+    public void testUnboundedInputIsPulledOnDemand() throws InterruptedException, ExecutionException {
+        AtomicInteger pulled = new AtomicInteger();
+        Iterable<Integer> unbounded = () -> IntStream.iterate(0, i -> i + 1).peek(i -> pulled.incrementAndGet()).iterator();
+
+        Collector<Integer> collector = new Collector<>(10);
+        AsyncFlow.mapAsync(AsyncFlow.fromIterable(unbounded), i -> CompletableFuture.supplyAsync(() -> i * 2, executor), 4)
+                .subscribe(collector);
+
+        assertEquals(10, collector.items(10).size());
+        collector.subscription.cancel();
+        assertTrue(pulled.get() <= 10 + 4);
+    }
+
+    @Test
+    public void testMapAsyncWithSubmissionPublisher() throws InterruptedException, ExecutionException {
+        Executor delayed = CompletableFuture.delayedExecutor(1, TimeUnit.MILLISECONDS, executor);
+        Collector<String> collector = new Collector<>(Long.MAX_VALUE);
+        try (SubmissionPublisher<Integer> publisher = new SubmissionPublisher<>(executor, 16)) {
+            AsyncFlow.mapAsync(publisher, i -> CompletableFuture.supplyAsync(() -> "parallel" + i, delayed), 4).subscribe(collector);
+            for (int i = 1; i <= 100; i++) {
+                publisher.submit(i); // blocks while the buffer of the subscription is full
+            }
+        }
+
+        List<String> result = collector.result.get();
+        assertEquals(100, result.size());
+        assertTrue(result.contains("parallel100"));
+    }
+
+    @Test
+    public void testFailure() throws InterruptedException {
+        AtomicInteger pulled = new AtomicInteger();
+        Iterable<Integer> unbounded = () -> IntStream.iterate(0, i -> i + 1).peek(i -> pulled.incrementAndGet()).iterator();
+
+        Collector<Integer> collector = new Collector<>(Long.MAX_VALUE);
+        AsyncFlow.mapAsync(AsyncFlow.fromIterable(unbounded),
+                i -> i < 5 ? CompletableFuture.completedFuture(i) : CompletableFuture.<Integer>failedFuture(new RuntimeException("exception")),
+                2).subscribe(collector);
+
+        try {
+            collector.result.get();
+            fail();
+        } catch (ExecutionException e) {
+            assertEquals("exception", e.getCause().getMessage());
+        }
+        assertTrue(pulled.get() <= 5 + 2); // the upstream is cancelled
+    }
+
+    @Test
+    public void testCancelInOnSubscribe() {
+        AtomicLong requested = new AtomicLong();
+
+        AsyncFlow.mapAsync(countingRequests(requested), CompletableFuture::completedFuture, 4)
+                .subscribe(new Collector<>(0) {
+                    @Override
+                    public void onSubscribe(Flow.Subscription subscription) {
+                        subscription.cancel();
+                    }
+                });
+
+        assertEquals(0, requested.get());
+    }
+
+    @Test
+    public void testCancelInOnNext() {
+        AtomicLong requested = new AtomicLong();
+
+        AsyncFlow.mapAsync(countingRequests(requested), CompletableFuture::completedFuture, 1)
+                .subscribe(new Collector<>(Long.MAX_VALUE) {
+                    @Override
+                    public void onNext(Integer item) {
+                        super.onNext(item);
+                        subscription.cancel();
+                    }
+                });
+
+        assertEquals(1, requested.get()); // no more items are requested after the cancellation
+    }
+
+    // emits the next integers when they are requested, counts the requested items and ignores the cancellation
+    private static Flow.Publisher<Integer> countingRequests(AtomicLong requested) {
+        return subscriber -> subscriber.onSubscribe(new Flow.Subscription() {
+            private int next;
+
+            @Override
+            public void request(long n) {
+                requested.addAndGet(n);
+                for (long i = 0; i < n; i++) {
+                    subscriber.onNext(next++);
+                }
+            }
+
+            @Override
+            public void cancel() {
+            }
+        });
+    }
+
+    // requests the given number of items, collects them and completes the result when the publisher completes
+    private static class Collector<T> implements Flow.Subscriber<T> {
+
+        private final long request;
+        private final List<T> items = Collections.synchronizedList(new ArrayList<>());
+        private final CompletableFuture<List<T>> result = new CompletableFuture<>();
+        Flow.Subscription subscription;
+
+        Collector(long request) {
+            this.request = request;
+        }
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            this.subscription = subscription;
+            subscription.request(request);
+        }
+
+        @Override
+        public void onNext(T item) {
+            items.add(item);
+        }
+
+        @Override
+        public void onError(Throwable t) {
+            result.completeExceptionally(t);
+        }
+
+        @Override
+        public void onComplete() {
+            result.complete(items);
+        }
+
+        List<T> items(int count) throws InterruptedException {
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (items.size() < count && System.nanoTime() < deadline) {
+                TimeUnit.MILLISECONDS.sleep(1);
+            }
+            return items;
+        }
+    }
+}
@@ -7,16 +7,15 @@ import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutionException;
 
 import static org.junit.Assert.assertEquals;
-import static java.util.concurrent.CompletableFuture.supplyAsync;
 
 public class AnyOf extends Demo {
 
     @Test
     public void testAnyOf() throws InterruptedException, ExecutionException {
         CompletableFuture<Object> future = CompletableFuture.anyOf(
-                supplyAsync(() -> sleepAndGet(1, "parallel1")),
-                supplyAsync(() -> sleepAndGet(2, "parallel2")),
-                supplyAsync(() -> sleepAndGet(3, "parallel3"))
+                sleepAndGetAsync(1, "parallel1"),
+                sleepAndGetAsync(2, "parallel2"),
+                sleepAndGetAsync(3, "parallel3")
         );
 
         assertEquals("parallel1", future.get());
@@ -24,8 +23,8 @@ public class AnyOf extends Demo {
 
     @Test
     public void testApplyToEither() throws InterruptedException, ExecutionException {
-        CompletableFuture<String> future1 = supplyAsync(() -> sleepAndGet(1, "parallel1"));
-        CompletableFuture<String> future2 = supplyAsync(() -> sleepAndGet(2, "parallel2"));
+        CompletableFuture<String> future1 = sleepAndGetAsync(1, "parallel1");
+        CompletableFuture<String> future2 = sleepAndGetAsync(2, "parallel2");
 
         CompletableFuture<String> future = future1
                 .applyToEither(future2, value -> value);
@@ -0,0 +1,61 @@
+package demo.completable_future.part8;
+
+import demo.completable_future.common.Demo;
+import demo.completable_future.common.ExecutorBoundFuture;
+import demo.completable_future.common.ExecutorMode;
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutionException;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class DefaultExecutor_with_executor_bound_future extends Demo {
+
+    private final Executor executor = ExecutorMode.FIXED.newExecutor(2);
+
+    @After
+    public void shutdown() {
+        ExecutorMode.shutdown(executor);
+    }
+
+    @Test
+    public void testDefaultExecutor() {
+        CompletableFuture<String> future1 = CompletableFuture.completedFuture("value");
+        assertNotSame(executor, future1.defaultExecutor()); // ForkJoinPool.commonPool() if its parallelism is > 1
+
+        CompletableFuture<String> future2 = ExecutorBoundFuture.completedFuture("value", executor);
+        assertSame(executor, future2.defaultExecutor());
+        assertSame(executor, future2.thenApply(String::toUpperCase).defaultExecutor());
+    }
+
+    @Test
+    public void testAsyncStagesStayOnExecutor() throws InterruptedException, ExecutionException {
+        CompletableFuture<String> future = ExecutorBoundFuture.supplyAsync(() -> sleepAndGet("sequential1"), executor)
+                .thenApplyAsync(s -> s + " " + Thread.currentThread().getName())
+                .thenCompose(s -> CompletableFuture.completedFuture(s + " sequential2"))
+                .thenApplyAsync(s -> s + " " + Thread.currentThread().getName());
+
+        assertTrue(future instanceof ExecutorBoundFuture);
+        String[] result = future.get().split(" ");
+        assertEquals("sequential1", result[0]);
+        assertTrue(result[1].startsWith("fixed-"));
+        assertEquals("sequential2", result[2]);
+        assertTrue(result[3].startsWith("fixed-"));
+    }
+
+    @Test
+    public void testPlainFutureFallsBackToCommonPool() throws InterruptedException, ExecutionException {
+        String thread = CompletableFuture.supplyAsync(() -> sleepAndGet("single"), executor)
+                .thenApplyAsync(s -> Thread.currentThread().getName())
+                .get();
+
+        assertNotEquals("fixed", thread.split("-")[0]);
+    }
+}
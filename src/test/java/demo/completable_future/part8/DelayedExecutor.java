@@ -18,7 +18,7 @@ public class DelayedExecutor extends Demo {
         CompletableFuture<Object> future = new CompletableFuture<>();
         assertFalse(future.isDone());
 
-        future.completeAsync(() -> "value", CompletableFuture.delayedExecutor(1, TimeUnit.SECONDS));
+        future.completeAsync(() -> "value", CompletableFuture.delayedExecutor(1, TimeUnit.SECONDS, executor()));
         assertFalse(future.isDone());
 
         TimeUnit.SECONDS.sleep(2);
@@ -0,0 +1,83 @@
+package demo.completable_future.part8;
+
+import demo.completable_future.common.Demo;
+import demo.completable_future.common.DependentsMonitor;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class GetNumberOfDependents_with_monitor extends Demo {
+
+    @Test
+    public void testMonitorFlagsLeak() {
+        CompletableFuture<String> config = new CompletableFuture<>(); // never completed
+        DependentsMonitor monitor = new DependentsMonitor(1000, 10);
+        monitor.register("config", config);
+
+        for (int sample = 1; sample <= 3; sample++) {
+            for (int request = 0; request < 1000; request++) {
+                config.thenApply(String::length).orTimeout(1, TimeUnit.MILLISECONDS); // the request times out, its dependent stays
+            }
+            monitor.sample();
+        }
+
+        assertArrayEquals(new int[]{1000, 2000, 3000}, monitor.history("config"));
+        assertEquals(List.of("config"), monitor.leaks());
+        logger.info("dependents:\n{}", monitor.report());
+
+        config.complete("value"); // runs and releases the dependents
+        monitor.sample();
+
+        assertEquals(0, config.getNumberOfDependents());
+        assertTrue(monitor.leaks().isEmpty());
+        assertEquals(0, monitor.history("config").length);
+    }
+
+    // the periodic samples of a pending future below the threshold are kept in a bounded history
+    @Test
+    public void testPeriodicSamplesAreBounded() throws InterruptedException {
+        CompletableFuture<String> config = new CompletableFuture<>();
+        for (int request = 0; request < 10; request++) {
+            config.thenApply(String::length);
+        }
+
+        try (DependentsMonitor monitor = new DependentsMonitor(100, 5).start(10, TimeUnit.MILLISECONDS)) {
+            monitor.register("config", config);
+            Thread.sleep(200); // about 20 samples
+
+            assertArrayEquals(new int[]{10, 10, 10, 10, 10}, monitor.history("config"));
+            assertTrue(monitor.leaks().isEmpty());
+        }
+    }
+
+    // the monitor doesn't keep a future reachable: a collected future is no longer monitored
+    @Test
+    public void testCollectedFutureIsNotMonitored() throws InterruptedException {
+        DependentsMonitor monitor = new DependentsMonitor(1, 10);
+        registerPendingFuture(monitor, "request");
+        monitor.sample();
+        assertArrayEquals(new int[]{1}, monitor.history("request"));
+        assertEquals(List.of("request"), monitor.leaks());
+
+        for (int i = 0; i < 10 && monitor.history("request").length > 0; i++) {
+            System.gc();
+            Thread.sleep(10);
+            monitor.sample();
+        }
+
+        assertEquals(0, monitor.history("request").length);
+        assertTrue(monitor.leaks().isEmpty());
+    }
+
+    private static void registerPendingFuture(DependentsMonitor monitor, String name) {
+        CompletableFuture<String> future = new CompletableFuture<>();
+        future.thenApply(String::length);
+        monitor.register(name, future);
+    }
+}